@@ -0,0 +1,55 @@
+package com.mfrank.functionprogram.benchmark;
+
+import com.mfrank.functionprogram.base.Function;
+import com.mfrank.functionprogram.base.Matcher;
+import com.mfrank.functionprogram.base.Result;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import static com.mfrank.functionprogram.base.Case.match;
+import static com.mfrank.functionprogram.base.Case.mcase;
+import static com.mfrank.functionprogram.base.Result.failure;
+import static com.mfrank.functionprogram.base.Result.success;
+
+/**
+ * Case.match 与预编译的 Matcher 校验器基准，对应 FunctionTest.emailChecker
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaseBenchmark {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[a-z0-9._%+-]+@[a-z0-9._]+\\.[a-z]{2,4}$");
+
+    @Param({"this.is@my.email", "", "invalid-email"})
+    public String email;
+
+    @SuppressWarnings("unchecked")
+    private final Function<String, Result<String>> emailChecker = s -> match(
+            mcase(() -> success(s)),
+            mcase(() -> s == null, () -> failure("email must not be null")),
+            mcase(() -> s.length() == 0, () -> failure("email must not be empty")),
+            mcase(() -> !EMAIL_PATTERN.matcher(s).matches(), () -> failure("email " + s + " is invalid"))
+    );
+
+    @Benchmark
+    public Result<String> emailChecker() {
+        return emailChecker.apply(email);
+    }
+
+    private final Function<String, Result<String>> compiledEmailChecker = Matcher
+            .<String, String>when(s -> s == null, s -> failure("email must not be null"))
+            .when(s -> s.length() == 0, s -> failure("email must not be empty"))
+            .when(s -> !EMAIL_PATTERN.matcher(s).matches(), s -> failure(() -> "email " + s + " is invalid"))
+            .otherwise(Result::success);
+
+    @Benchmark
+    public Result<String> compiledEmailChecker() {
+        return compiledEmailChecker.apply(email);
+    }
+}
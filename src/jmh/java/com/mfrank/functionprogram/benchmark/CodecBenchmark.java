@@ -0,0 +1,81 @@
+package com.mfrank.functionprogram.benchmark;
+
+import com.mfrank.functionprogram.codec.Codec;
+import com.mfrank.functionprogram.codec.Codecs;
+import com.mfrank.functionprogram.collection.List;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表快照的写入和读取：内存映射的二进制编码与 Java 序列化（先转换为 ArrayList）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    private static final Codec<List<Integer>> CODEC = Codecs.list(Codecs.INT);
+
+    @Param({"1000000"})
+    public int size;
+
+    private List<Integer> list;
+    private Path mapped;
+    private Path serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        List.Builder<Integer> builder = List.builder(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(i);
+        }
+        list = builder.build();
+        mapped = Files.createTempFile("codec", ".bin");
+        serialized = Files.createTempFile("codec", ".ser");
+        CODEC.save(mapped, list);
+        serialize();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(mapped);
+        Files.deleteIfExists(serialized);
+    }
+
+    @Benchmark
+    public void save() throws IOException {
+        CODEC.save(mapped, list);
+    }
+
+    @Benchmark
+    public List<Integer> load() throws IOException {
+        return CODEC.load(mapped);
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(serialized)))) {
+            ArrayList<Integer> copy = new ArrayList<>(size);
+            for (Integer i : list) {
+                copy.add(i);
+            }
+            out.writeObject(copy);
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Integer> deserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(serialized)))) {
+            return List.fromIterable((ArrayList<Integer>) in.readObject());
+        }
+    }
+}
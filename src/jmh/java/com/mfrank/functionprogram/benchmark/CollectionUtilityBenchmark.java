@@ -0,0 +1,54 @@
+package com.mfrank.functionprogram.benchmark;
+
+import com.mfrank.functionprogram.util.CollectionUtility;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CollectionUtility 折叠与 range 基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollectionUtilityBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        List<Integer> ts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ts.add(i);
+        }
+        list = CollectionUtility.list(ts);
+    }
+
+    @Benchmark
+    public Integer fold() {
+        return CollectionUtility.fold(list, 0, x -> y -> x + y);
+    }
+
+    @Benchmark
+    public Integer foldLeft() {
+        return CollectionUtility.foldLeft(list, 0, x -> y -> x + y);
+    }
+
+    @Benchmark
+    public Integer foldRight() {
+        return CollectionUtility.foldRight(list, 0, x -> y -> x + y);
+    }
+
+    @Benchmark
+    public List<Integer> range() {
+        return CollectionUtility.range(0, size);
+    }
+}
@@ -0,0 +1,93 @@
+package com.mfrank.functionprogram.benchmark;
+
+import com.mfrank.functionprogram.collection.List;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * collection.List 的核心操作基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private List<Integer> list;
+    private List<List<Integer>> chunks;
+
+    @Setup
+    public void setUp() {
+        List<Integer> n = List.list();
+        for (int i = size; i > 0; i--) {
+            n = n.cons(i);
+        }
+        list = n;
+        List<List<Integer>> c = List.list();
+        for (int i = size; i > 0; i -= 10) {
+            c = c.cons(List.list(i, i + 1, i + 2, i + 3, i + 4, i + 5, i + 6, i + 7, i + 8, i + 9));
+        }
+        chunks = c;
+    }
+
+    @Benchmark
+    public Integer foldLeft() {
+        return list.foldLeft(0, x -> y -> x + y);
+    }
+
+    @Benchmark
+    public Integer foldRight() {
+        return list.foldRight(0, x -> y -> x + y);
+    }
+
+    @Benchmark
+    public List<Integer> map() {
+        return list.map(x -> x * 2);
+    }
+
+    @Benchmark
+    public List<Integer> filter() {
+        return list.filter(x -> x % 2 == 0);
+    }
+
+    @Benchmark
+    public List<Integer> reverse() {
+        return list.reverse();
+    }
+
+    @Benchmark
+    public List<Integer> drop() {
+        return list.drop(size - 1);
+    }
+
+    @Benchmark
+    public List<Integer> dropWhile() {
+        return list.dropWhile(x -> x < size);
+    }
+
+    @Benchmark
+    public List<Integer> init() {
+        return list.init();
+    }
+
+    @Benchmark
+    public List<Integer> pipeline() {
+        return list.map(x -> x * 2).filter(x -> x % 3 == 0).map(x -> x + 1);
+    }
+
+    @Benchmark
+    public List<Integer> viewPipeline() {
+        return list.view().map(x -> x * 2).filter(x -> x % 3 == 0).map(x -> x + 1).toList();
+    }
+
+    @Benchmark
+    public List<Integer> flatten() {
+        return List.flatten(chunks);
+    }
+}
@@ -0,0 +1,77 @@
+package com.mfrank.functionprogram.benchmark;
+
+import com.mfrank.functionprogram.collection.Map;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 持久化 Map 的查找和更新，与复制 java.util.HashMap 后再修改的做法对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapBenchmark {
+
+    @Param({"100", "100000"})
+    public int size;
+
+    private Map<Integer, Integer> map;
+    private HashMap<Integer, Integer> hashMap;
+    private int key;
+
+    @Setup
+    public void setUp() {
+        Map.Builder<Integer, Integer> builder = Map.builder();
+        hashMap = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            builder.put(i, i);
+            hashMap.put(i, i);
+        }
+        map = builder.build();
+    }
+
+    private int nextKey() {
+        key = (key + 7919) % size;
+        return key;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.getOrElse(nextKey(), -1);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> put() {
+        return map.put(nextKey(), -1);
+    }
+
+    @Benchmark
+    public HashMap<Integer, Integer> copyAndPut() {
+        HashMap<Integer, Integer> copy = new HashMap<>(hashMap);
+        copy.put(nextKey(), -1);
+        return copy;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> build() {
+        Map.Builder<Integer, Integer> builder = Map.builder();
+        for (int i = 0; i < size; i++) {
+            builder.put(i, i);
+        }
+        return builder.build();
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> putAll() {
+        Map<Integer, Integer> result = Map.empty();
+        for (int i = 0; i < size; i++) {
+            result = result.put(i, i);
+        }
+        return result;
+    }
+}
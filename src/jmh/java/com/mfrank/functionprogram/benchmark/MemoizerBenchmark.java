@@ -0,0 +1,52 @@
+package com.mfrank.functionprogram.benchmark;
+
+import com.mfrank.functionprogram.base.Function;
+import com.mfrank.functionprogram.base.Memoizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Memoizer 命中与未命中路径基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemoizerBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int keys;
+
+    private Function<Integer, Integer> memoized;
+
+    private Function<Integer, Integer> bounded;
+
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        memoized = Memoizer.memoize(x -> x * 31 + 7);
+        bounded = Memoizer.builder().maximumSize(keys / 2).build(x -> x * 31 + 7);
+        next = 0;
+    }
+
+    @Benchmark
+    public Integer hit() {
+        return memoized.apply(next++ & 15);
+    }
+
+    @Benchmark
+    public Integer mixed() {
+        next = next + 1 == keys ? 0 : next + 1;
+        return memoized.apply(next);
+    }
+
+    @Benchmark
+    public Integer boundedMixed() {
+        next = next + 1 == keys ? 0 : next + 1;
+        return bounded.apply(next);
+    }
+}
@@ -0,0 +1,69 @@
+package com.mfrank.functionprogram.benchmark;
+
+import com.mfrank.functionprogram.base.Monoid;
+import com.mfrank.functionprogram.collection.List;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * List 并行折叠/映射/过滤在不同并行度下的伸缩性，parallelism = 1 即为顺序基线
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    @Param({"1000000"})
+    public int size;
+
+    private ForkJoinPool pool;
+
+    private List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        List<Integer> n = List.list();
+        for (int i = size; i > 0; i--) {
+            n = n.cons(i);
+        }
+        list = n;
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static double work(int x) {
+        return Math.sqrt(x) * Math.log(x + 1);
+    }
+
+    @Benchmark
+    public Double foldLeft() {
+        return list.foldLeft(0.0, x -> y -> x + work(y));
+    }
+
+    @Benchmark
+    public Double parFoldLeft() {
+        return list.parFoldLeft(pool, Monoid.doubleSum(), x -> y -> x + work(y));
+    }
+
+    @Benchmark
+    public List<Double> parMap() {
+        return list.parMap(pool, ParallelBenchmark::work);
+    }
+
+    @Benchmark
+    public List<Integer> parFilter() {
+        return list.parFilter(pool, x -> work(x) > 1000);
+    }
+}
@@ -0,0 +1,65 @@
+package com.mfrank.functionprogram.benchmark;
+
+import com.mfrank.functionprogram.collection.Deque;
+import com.mfrank.functionprogram.collection.List;
+import com.mfrank.functionprogram.collection.Queue;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 先进先出：持久化队列与在 List 尾部追加元素的做法对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueueBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    @Benchmark
+    public int queue() {
+        Queue<Integer> queue = Queue.empty();
+        for (int i = 0; i < size; i++) {
+            queue = queue.enqueue(i);
+        }
+        int sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.peek();
+            queue = queue.dequeue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int deque() {
+        Deque<Integer> deque = Deque.empty();
+        for (int i = 0; i < size; i++) {
+            deque = deque.pushBack(i);
+        }
+        int sum = 0;
+        while (!deque.isEmpty()) {
+            sum += deque.peekFirst();
+            deque = deque.popFront();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int listAppend() {
+        List<Integer> list = List.list();
+        for (int i = 0; i < size; i++) {
+            list = List.concat(list, List.list(i));
+        }
+        int sum = 0;
+        while (!list.isEmpty()) {
+            sum += list.head();
+            list = list.tail();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,74 @@
+package com.mfrank.functionprogram.benchmark;
+
+import com.mfrank.functionprogram.base.IntTailCall;
+import com.mfrank.functionprogram.base.TailCall;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.mfrank.functionprogram.base.TailCall.ret;
+import static com.mfrank.functionprogram.base.TailCall.sus;
+
+/**
+ * TailCall 蹦床的每步开销基准
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TailCallBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int steps;
+
+    @Benchmark
+    public Integer eval() {
+        return add(0, steps).eval();
+    }
+
+    @Benchmark
+    public Integer loop() {
+        return addLoop(0, steps).eval();
+    }
+
+    private static TailCall<Integer> addLoop(int x, int y) {
+        return new TailCall.Loop<Integer>() {
+            private int acc = x;
+            private int remaining = y;
+
+            @Override
+            protected boolean step() {
+                if (remaining == 0) {
+                    return false;
+                }
+                acc++;
+                remaining--;
+                return true;
+            }
+
+            @Override
+            protected Integer result() {
+                return acc;
+            }
+        };
+    }
+
+    @Benchmark
+    public int intEval() {
+        return intAdd(0, steps).eval();
+    }
+
+    private static IntTailCall intAdd(int x, int y) {
+        return y == 0
+                ? IntTailCall.ret(x)
+                : IntTailCall.sus(() -> intAdd(x + 1, y - 1));
+    }
+
+    private static TailCall<Integer> add(int x, int y) {
+        return y == 0
+                ? ret(x)
+                : sus(() -> add(x + 1, y - 1));
+    }
+}
@@ -0,0 +1,194 @@
+package com.mfrank.functionprogram.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步批量记忆化函数，由 Memoizer.memoizeAsync 创建。
+ * <p>
+ * 每个键只对应一个 CompletableFuture，命中时直接返回它，不会阻塞调用线程。
+ * 未命中的键先放入队列，在一个很短的时间窗口内到达的键合并成一批，在 executor 上调用一次批量加载函数；
+ * 队列达到 maxBatchSize 时立即分批，不等窗口结束。
+ * 加载失败的键会从缓存中移除，下一次调用重新加载；批量加载结果中没有的键同样视为失败，
+ * 以 NoSuchElementException 结束并从缓存中移除，结果中显式映射为 null 的键记为 null。
+ */
+public final class AsyncMemoizer<T, U> implements Function<T, CompletableFuture<U>> {
+
+    private final Function<List<T>, Map<T, U>> loader;
+    private final Executor executor;
+    private final long windowNanos;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<T, CompletableFuture<U>> cache = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Tuple<T, CompletableFuture<U>>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    AsyncMemoizer(Function<List<T>, Map<T, U>> loader, Executor executor, long windowNanos, int maxBatchSize) {
+        if (windowNanos < 0) {
+            throw new IllegalArgumentException("window must not be negative: " + windowNanos);
+        }
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.loader = loader;
+        this.executor = executor;
+        this.windowNanos = windowNanos;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public CompletableFuture<U> apply(T key) {
+        MetricsRecorder metrics = Metrics.recorder();
+        CompletableFuture<U> future = cache.get(key);
+        if (future != null) {
+            metrics.memoizerHit();
+            return future;
+        }
+        CompletableFuture<U> created = new CompletableFuture<>();
+        future = cache.putIfAbsent(key, created);
+        if (future != null) {
+            metrics.memoizerHit();
+            return future;
+        }
+        metrics.memoizerMiss();
+        metrics.memoizerSize(1);
+        enqueue(key, created);
+        return created;
+    }
+
+    /**
+     * 批量预热，不等时间窗口，立即加载所有尚未缓存的键
+     *
+     * @param keys 需要预热的键
+     * @return 所有键都加载完成后，按键的顺序返回结果
+     */
+    public CompletableFuture<Map<T, U>> memoizeAll(Iterable<? extends T> keys) {
+        Map<T, CompletableFuture<U>> futures = new LinkedHashMap<>();
+        for (T key : keys) {
+            futures.put(key, apply(key));
+        }
+        dispatch();
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<T, U> result = new LinkedHashMap<>();
+                    futures.forEach((key, future) -> result.put(key, future.join()));
+                    return result;
+                });
+    }
+
+    long size() {
+        return cache.mappingCount();
+    }
+
+    // 先入队再检查 scheduled，保证 dispatch 把 scheduled 置为 false 之后入队的键一定会触发新的 dispatch
+    private void enqueue(T key, CompletableFuture<U> future) {
+        queue.add(new Tuple<>(key, future));
+        if (queued.incrementAndGet() >= maxBatchSize) {
+            dispatch();
+        } else if (scheduled.compareAndSet(false, true)) {
+            if (windowNanos == 0) {
+                submit(this::dispatch);
+            } else {
+                Timer.INSTANCE.schedule(this::dispatch, windowNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // 取出队列中所有等待的键，按 maxBatchSize 分批交给 executor 加载
+    private void dispatch() {
+        scheduled.set(false);
+        List<Tuple<T, CompletableFuture<U>>> batch = new ArrayList<>();
+        Tuple<T, CompletableFuture<U>> item;
+        while ((item = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(item);
+            if (batch.size() == maxBatchSize) {
+                load(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            load(batch);
+        }
+    }
+
+    private void load(List<Tuple<T, CompletableFuture<U>>> batch) {
+        try {
+            executor.execute(() -> doLoad(batch));
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        }
+    }
+
+    private void doLoad(List<Tuple<T, CompletableFuture<U>>> batch) {
+        List<T> keys = new ArrayList<>(batch.size());
+        for (Tuple<T, CompletableFuture<U>> item : batch) {
+            keys.add(item._1);
+        }
+        MetricsRecorder metrics = Metrics.recorder();
+        long start = metrics == MetricsRecorder.NOOP ? 0 : System.nanoTime();
+        Map<T, U> values;
+        try {
+            values = loader.apply(Collections.unmodifiableList(keys));
+        } catch (Throwable t) {
+            Memoizer.recordLoad(metrics, start);
+            fail(batch, t);
+            return;
+        }
+        Memoizer.recordLoad(metrics, start);
+        for (Tuple<T, CompletableFuture<U>> item : batch) {
+            if (values != null && values.containsKey(item._1)) {
+                item._2.complete(values.get(item._1));
+            } else {
+                fail(item, new NoSuchElementException("no value loaded for key: " + item._1));
+            }
+        }
+    }
+
+    private void fail(List<Tuple<T, CompletableFuture<U>>> batch, Throwable t) {
+        for (Tuple<T, CompletableFuture<U>> item : batch) {
+            fail(item, t);
+        }
+    }
+
+    // 先从缓存中移除再结束 future，等待结果的调用者重试时一定会重新加载
+    private void fail(Tuple<T, CompletableFuture<U>> item, Throwable t) {
+        if (cache.remove(item._1, item._2)) {
+            Metrics.recorder().memoizerSize(-1);
+        }
+        item._2.completeExceptionally(t);
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RuntimeException e) {
+            scheduled.set(false);
+            dispatch();
+        }
+    }
+
+    // 只负责在窗口结束时触发 dispatch，加载本身在调用方提供的 executor 上执行
+    private static final class Timer {
+
+        private static final ScheduledExecutorService INSTANCE = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "async-memoizer-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,296 @@
+package com.mfrank.functionprogram.base;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 有界的记忆化函数，由 Memoizer.builder() 创建。
+ * <p>
+ * 查找路径只有一次 ConcurrentHashMap.get 和几个 volatile 写，不加任何锁；加载在 map 的锁之外执行，
+ * 同一个键的并发未命中只加载一次。
+ * 超过容量或者发现过期条目时，由触发的线程 tryLock 后做清理，其它线程不会等待。
+ * 淘汰是近似的：每次从一个跨调用保持位置的迭代器中取样若干条目，淘汰其中最久未访问（LRU）
+ * 或者访问次数最少（LFU）的那一个。
+ */
+final class BoundedMemoizer<T, U> implements Function<T, U> {
+
+    private static final int SAMPLE_SIZE = 8;
+
+    enum Strength {STRONG, SOFT, WEAK}
+
+    private final Function<T, U> function;
+    private final long maximumSize;
+    private final Memoizer.EvictionPolicy policy;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final Strength strength;
+    private final LongSupplier ticker;
+    // 内部使用的缓存（例如 memoize2 的部分应用）不计入 memoizer 指标
+    private final boolean recordMetrics;
+
+    private final ConcurrentHashMap<T, Entry<T, U>> cache = new ConcurrentHashMap<>();
+    private final ReferenceQueue<U> queue = new ReferenceQueue<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // 正在加载的占位条目个数，不计入容量，递归函数的调用链上可能同时有很多占位条目
+    private final AtomicLong loading = new AtomicLong();
+
+    // 只在持有 evictionLock 时访问
+    private Iterator<Entry<T, U>> hand;
+
+    BoundedMemoizer(Function<T, U> function, long maximumSize, Memoizer.EvictionPolicy policy,
+                    long expireAfterWriteNanos, long expireAfterAccessNanos, Strength strength, LongSupplier ticker,
+                    boolean recordMetrics) {
+        this.function = function;
+        this.maximumSize = maximumSize;
+        this.policy = policy;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.expireAfterAccessNanos = expireAfterAccessNanos;
+        this.strength = strength;
+        this.ticker = ticker;
+        this.recordMetrics = recordMetrics;
+    }
+
+    @Override
+    public U apply(T key) {
+        long now = ticker.getAsLong();
+        Entry<T, U> entry = cache.get(key);
+        if (entry != null && entry.pending == null) {
+            U value = entry.value();
+            if (value != null && !isExpired(entry, now)) {
+                entry.accessTime = now;
+                entry.frequency++;
+                metrics().memoizerHit();
+                return value;
+            }
+        }
+        return load(key, now);
+    }
+
+    long size() {
+        return cache.mappingCount();
+    }
+
+    private MetricsRecorder metrics() {
+        return recordMetrics ? Metrics.recorder() : MetricsRecorder.NOOP;
+    }
+
+    // 与 Memoizer.memoize 相同，先放入占位的 Pending 条目，在 map 的锁之外执行加载
+    private U load(T key, long now) {
+        MetricsRecorder metrics = metrics();
+        while (true) {
+            Entry<T, U> entry = cache.get(key);
+            if (entry != null) {
+                if (entry.pending != null) {
+                    metrics.memoizerHit();
+                    return entry.pending.await();
+                }
+                U value = entry.value();
+                if (value != null && !isExpired(entry, now)) {
+                    metrics.memoizerHit();
+                    return value;
+                }
+            }
+            Entry<T, U> placeholder = new Entry<>(key, new Pending<>(), now);
+            boolean installed = entry == null
+                    ? cache.putIfAbsent(key, placeholder) == null
+                    : cache.replace(key, entry, placeholder);
+            if (!installed) {
+                continue;
+            }
+            if (entry != null) {
+                metrics.memoizerSize(-1);
+            }
+            loading.incrementAndGet();
+            metrics.memoizerMiss();
+            long start = metrics == MetricsRecorder.NOOP ? 0 : System.nanoTime();
+            U value;
+            try {
+                value = function.apply(key);
+            } catch (Throwable t) {
+                cache.remove(key, placeholder);
+                loading.decrementAndGet();
+                placeholder.pending.fail(t);
+                Memoizer.recordLoad(metrics, start);
+                throw t;
+            }
+            if (value == null) {
+                cache.remove(key, placeholder);
+            } else if (cache.replace(key, placeholder, new Entry<>(key, value, ticker.getAsLong(), strength, queue))) {
+                metrics.memoizerSize(1);
+            }
+            loading.decrementAndGet();
+            placeholder.pending.complete(value);
+            Memoizer.recordLoad(metrics, start);
+            cleanUp(now);
+            return value;
+        }
+    }
+
+    private boolean isExpired(Entry<T, U> entry, long now) {
+        return expireAfterWriteNanos > 0 && now - entry.writeTime >= expireAfterWriteNanos
+                || expireAfterAccessNanos > 0 && now - entry.accessTime >= expireAfterAccessNanos;
+    }
+
+    private boolean isDead(Entry<T, U> entry, long now) {
+        return entry.pending == null && (entry.value() == null || isExpired(entry, now));
+    }
+
+    private void cleanUp(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            drainReferenceQueue();
+            if (expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0) {
+                for (int i = 0; i < SAMPLE_SIZE; i++) {
+                    Entry<T, U> entry = next();
+                    if (entry == null) {
+                        break;
+                    }
+                    if (isDead(entry, now)) {
+                        remove(entry);
+                    }
+                }
+            }
+            // 取样范围内都是占位条目时 evictOne 找不到可以淘汰的条目，此时停止，下次清理再继续
+            while (cache.mappingCount() - loading.get() > maximumSize) {
+                if (!evictOne(now)) {
+                    break;
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drainReferenceQueue() {
+        Reference<? extends U> reference;
+        while ((reference = queue.poll()) != null) {
+            Object key = reference instanceof KeyedSoftReference
+                    ? ((KeyedSoftReference<?, ?>) reference).key
+                    : ((KeyedWeakReference<?, ?>) reference).key;
+            Entry<T, U> entry = cache.get((T) key);
+            if (entry != null && entry.reference == reference) {
+                remove(entry);
+            }
+        }
+    }
+
+    private void remove(Entry<T, U> entry) {
+        if (cache.remove(entry.key, entry)) {
+            metrics().memoizerSize(-1);
+        }
+    }
+
+    private boolean evictOne(long now) {
+        Entry<T, U> victim = null;
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            Entry<T, U> entry = next();
+            if (entry == null) {
+                break;
+            }
+            if (entry.pending != null) {
+                continue;
+            }
+            if (isDead(entry, now)) {
+                victim = entry;
+                break;
+            }
+            if (victim == null || isBetterVictim(entry, victim)) {
+                victim = entry;
+            }
+        }
+        if (victim == null) {
+            return false;
+        }
+        remove(victim);
+        return true;
+    }
+
+    private boolean isBetterVictim(Entry<T, U> entry, Entry<T, U> victim) {
+        if (policy == Memoizer.EvictionPolicy.LFU && entry.frequency != victim.frequency) {
+            return entry.frequency < victim.frequency;
+        }
+        return entry.accessTime < victim.accessTime;
+    }
+
+    // 时钟指针：迭代器跨多次淘汰保持位置，走到末尾后从头开始
+    private Entry<T, U> next() {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            if (hand == null || !hand.hasNext()) {
+                hand = cache.values().iterator();
+            }
+            if (hand.hasNext()) {
+                return hand.next();
+            }
+        }
+        return null;
+    }
+
+    private static final class Entry<T, U> {
+
+        private final T key;
+        private final U value;
+        private final Reference<U> reference;
+        private final Pending<U> pending;
+        private final long writeTime;
+        private volatile long accessTime;
+        // 近似计数，并发时可能丢失部分增量
+        private volatile int frequency;
+
+        private Entry(T key, U value, long now, Strength strength, ReferenceQueue<U> queue) {
+            this.key = key;
+            this.value = strength == Strength.STRONG ? value : null;
+            this.reference = strength == Strength.SOFT
+                    ? new KeyedSoftReference<>(key, value, queue)
+                    : strength == Strength.WEAK
+                    ? new KeyedWeakReference<>(key, value, queue)
+                    : null;
+            this.pending = null;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+
+        // 加载中的占位条目
+        private Entry(T key, Pending<U> pending, long now) {
+            this.key = key;
+            this.value = null;
+            this.reference = null;
+            this.pending = pending;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+
+        private U value() {
+            return reference == null ? value : reference.get();
+        }
+    }
+
+    private static final class KeyedSoftReference<T, U> extends SoftReference<U> {
+
+        private final T key;
+
+        private KeyedSoftReference(T key, U value, ReferenceQueue<U> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    private static final class KeyedWeakReference<T, U> extends WeakReference<U> {
+
+        private final T key;
+
+        private KeyedWeakReference(T key, U value, ReferenceQueue<U> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+}
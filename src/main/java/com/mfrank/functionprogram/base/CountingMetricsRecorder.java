@@ -0,0 +1,104 @@
+package com.mfrank.functionprogram.base;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于 LongAdder 的计数实现，并发写入时没有竞争，snapshot 时才汇总
+ */
+public class CountingMetricsRecorder implements MetricsRecorder {
+
+    private final LongAdder memoizerHits = new LongAdder();
+    private final LongAdder memoizerMisses = new LongAdder();
+    private final LongAdder memoizerLoads = new LongAdder();
+    private final LongAdder memoizerLoadNanos = new LongAdder();
+    // 所有记忆化函数的条目总数，不能区分单个缓存
+    private final LongAdder memoizerSize = new LongAdder();
+    private final LongAdder tailCallEvals = new LongAdder();
+    private final LongAdder tailCallBounces = new LongAdder();
+    private final LongAdder tailCallNanos = new LongAdder();
+    private final LongAccumulator tailCallMaxBounces = new LongAccumulator(Math::max, 0);
+    private final LongAdder folds = new LongAdder();
+    private final LongAdder foldElements = new LongAdder();
+    private final LongAccumulator foldMaxElements = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void memoizerHit() {
+        memoizerHits.increment();
+    }
+
+    @Override
+    public void memoizerMiss() {
+        memoizerMisses.increment();
+    }
+
+    @Override
+    public void memoizerLoad(long nanos) {
+        memoizerLoads.increment();
+        memoizerLoadNanos.add(nanos);
+    }
+
+    @Override
+    public void memoizerSize(long delta) {
+        memoizerSize.add(delta);
+    }
+
+    @Override
+    public void tailCallEval(long bounces, long nanos) {
+        tailCallEvals.increment();
+        tailCallBounces.add(bounces);
+        tailCallNanos.add(nanos);
+        tailCallMaxBounces.accumulate(bounces);
+    }
+
+    @Override
+    public void fold(long elements) {
+        folds.increment();
+        foldElements.add(elements);
+        foldMaxElements.accumulate(elements);
+    }
+
+    /**
+     * 汇总当前的计数，各项之间不是原子的快照
+     *
+     * @return 返回按名称排列的度量值
+     */
+    public Map<String, Object> snapshot() {
+        long hits = memoizerHits.sum();
+        long misses = memoizerMisses.sum();
+        long loads = memoizerLoads.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("memoizer.hits", hits);
+        result.put("memoizer.misses", misses);
+        result.put("memoizer.hitRate", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        result.put("memoizer.loads", loads);
+        result.put("memoizer.loadNanos", memoizerLoadNanos.sum());
+        result.put("memoizer.averageLoadNanos", loads == 0 ? 0 : memoizerLoadNanos.sum() / loads);
+        result.put("memoizer.size", memoizerSize.sum());
+        result.put("tailCall.evals", tailCallEvals.sum());
+        result.put("tailCall.bounces", tailCallBounces.sum());
+        result.put("tailCall.maxBounces", tailCallMaxBounces.get());
+        result.put("tailCall.nanos", tailCallNanos.sum());
+        result.put("fold.count", folds.sum());
+        result.put("fold.elements", foldElements.sum());
+        result.put("fold.maxElements", foldMaxElements.get());
+        return result;
+    }
+
+    // memoizer.size 是当前的条目数，不随其它计数清零
+    public void reset() {
+        memoizerHits.reset();
+        memoizerMisses.reset();
+        memoizerLoads.reset();
+        memoizerLoadNanos.reset();
+        tailCallEvals.reset();
+        tailCallBounces.reset();
+        tailCallNanos.reset();
+        tailCallMaxBounces.reset();
+        folds.reset();
+        foldElements.reset();
+        foldMaxElements.reset();
+    }
+}
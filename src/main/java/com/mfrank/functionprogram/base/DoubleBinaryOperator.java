@@ -0,0 +1,14 @@
+package com.mfrank.functionprogram.base;
+
+public interface DoubleBinaryOperator {
+
+    double apply(double x, double y);
+
+    default DoubleFunction partial(double x) {
+        return y -> apply(x, y);
+    }
+
+    default DoubleBinaryOperator andThen(DoubleFunction f) {
+        return (x, y) -> f.apply(apply(x, y));
+    }
+}
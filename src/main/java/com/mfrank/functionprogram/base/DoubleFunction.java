@@ -0,0 +1,26 @@
+package com.mfrank.functionprogram.base;
+
+public interface DoubleFunction {
+
+    double apply(double arg);
+
+    default DoubleFunction compose(DoubleFunction f) {
+        return x -> apply(f.apply(x));
+    }
+
+    default DoubleFunction andThen(DoubleFunction f) {
+        return x -> f.apply(apply(x));
+    }
+
+    static DoubleFunction identity() {
+        return x -> x;
+    }
+
+    static DoubleFunction compose(DoubleFunction f, DoubleFunction g) {
+        return x -> f.apply(g.apply(x));
+    }
+
+    static DoubleFunction andThen(DoubleFunction f, DoubleFunction g) {
+        return x -> g.apply(f.apply(x));
+    }
+}
@@ -0,0 +1,22 @@
+package com.mfrank.functionprogram.base;
+
+public interface DoublePredicate {
+
+    boolean test(double arg);
+
+    default DoublePredicate negate() {
+        return x -> !test(x);
+    }
+
+    default DoublePredicate and(DoublePredicate p) {
+        return x -> test(x) && p.test(x);
+    }
+
+    default DoublePredicate or(DoublePredicate p) {
+        return x -> test(x) || p.test(x);
+    }
+
+    default DoublePredicate compose(DoubleFunction f) {
+        return x -> test(f.apply(x));
+    }
+}
@@ -53,7 +53,8 @@ public interface Function<T, U> {
     }
 
     static <T> Function<T, T> composeAllViaFoldLeft(List<Function<T, T>> list){
-        return x -> foldLeft(reverse(list), x, a -> b -> b.apply(a));
+        List<Function<T, T>> reversed = reverse(list);
+        return x -> foldLeft(reversed, x, a -> b -> b.apply(a));
     }
 
     static <T> Function<T, T> composeAllViaFoldRight(List<Function<T, T>> list){
@@ -65,7 +66,16 @@ public interface Function<T, U> {
     }
 
     static <T> Function<T, T> andThenAllViaFoldRight(List<Function<T, T>> list){
-        return x -> foldRight(reverse(list), x, a -> a::apply);
+        List<Function<T, T>> reversed = reverse(list);
+        return x -> foldRight(reversed, x, a -> a::apply);
+    }
+
+    static <T> Function<T, T> composeAll(List<Function<T, T>> list){
+        return FunctionChain.composeAll(list);
+    }
+
+    static <T> Function<T, T> andThenAll(List<Function<T, T>> list){
+        return FunctionChain.andThenAll(list);
     }
 
 }
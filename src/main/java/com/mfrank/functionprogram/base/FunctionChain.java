@@ -0,0 +1,139 @@
+package com.mfrank.functionprogram.base;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 编译后的函数链。compose/andThen 只创建一个 O(1) 的节点，第一次 apply 时把整棵树展开成数组并缓存，
+ * 之后每次调用都是一个简单的循环，不会像嵌套的 lambda 那样每组合一层就加深一层调用栈。
+ * 展开过程使用显式栈，任意长度的函数链都不会栈溢出。展开后释放子链，
+ * 因此逐步组合并在每一步之间调用 apply 时，只有最新的数组是可达的，占用的内存是 O(n) 而不是 O(n²)
+ */
+public final class FunctionChain<T, U> implements Function<T, U> {
+
+    private static final Function<?, ?>[] EMPTY = new Function<?, ?>[0];
+
+    @SuppressWarnings("rawtypes")
+    private static final FunctionChain IDENTITY = new FunctionChain<>(EMPTY);
+
+    // 内部节点的两个子链，叶子节点和已经展开的内部节点为 null
+    private volatile FunctionChain<?, ?> first;
+    private volatile FunctionChain<?, ?> second;
+    private final int length;
+
+    // 按调用顺序排列的函数，叶子节点在构造时设置，内部节点在第一次 apply 时展开，并发时最多重复展开
+    private volatile Function<?, ?>[] compiled;
+
+    private FunctionChain(Function<?, ?>[] functions) {
+        this.first = null;
+        this.second = null;
+        this.length = functions.length;
+        this.compiled = functions;
+    }
+
+    private FunctionChain(FunctionChain<?, ?> first, FunctionChain<?, ?> second) {
+        this.first = first;
+        this.second = second;
+        this.length = Math.addExact(first.length, second.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> FunctionChain<T, T> identity() {
+        return IDENTITY;
+    }
+
+    /**
+     * 将函数包装为函数链，已经是函数链时直接返回
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, U> FunctionChain<T, U> of(Function<T, U> f) {
+        return f instanceof FunctionChain
+                ? (FunctionChain<T, U>) f
+                : new FunctionChain<>(new Function<?, ?>[]{f});
+    }
+
+    /**
+     * 组合列表中的所有函数，最后一个函数最先执行。列表只在创建时复制一次
+     */
+    public static <T> FunctionChain<T, T> composeAll(List<? extends Function<T, T>> list) {
+        Function<?, ?>[] functions = new Function<?, ?>[list.size()];
+        int i = functions.length;
+        for (Function<T, T> f : list) {
+            functions[--i] = f;
+        }
+        return new FunctionChain<>(functions);
+    }
+
+    /**
+     * 依次执行列表中的所有函数，第一个函数最先执行。列表只在创建时复制一次
+     */
+    public static <T> FunctionChain<T, T> andThenAll(List<? extends Function<T, T>> list) {
+        return new FunctionChain<>(list.toArray(new Function<?, ?>[0]));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public U apply(T t) {
+        Object result = t;
+        for (Function<?, ?> f : compile()) {
+            result = ((Function<Object, Object>) f).apply(result);
+        }
+        return (U) result;
+    }
+
+    @Override
+    public <V> FunctionChain<V, U> compose(Function<V, T> f) {
+        return new FunctionChain<>(of(f), this);
+    }
+
+    @Override
+    public <V> FunctionChain<T, V> andThen(Function<U, V> f) {
+        return new FunctionChain<>(this, of(f));
+    }
+
+    /**
+     * @return 返回链中函数的个数
+     */
+    public int length() {
+        return length;
+    }
+
+    private Function<?, ?>[] compile() {
+        Function<?, ?>[] result = compiled;
+        if (result == null) {
+            result = flatten();
+            // 先发布数组再释放子链，读到 null 子链的线程一定能读到数组
+            compiled = result;
+            first = null;
+            second = null;
+        }
+        return result;
+    }
+
+    // 先序遍历，已经展开过的子链直接复制它的数组
+    private Function<?, ?>[] flatten() {
+        Function<?, ?>[] result = length == 0 ? EMPTY : new Function<?, ?>[length];
+        int position = 0;
+        Deque<FunctionChain<?, ?>> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            FunctionChain<?, ?> chain = stack.pop();
+            Function<?, ?>[] functions = chain.compiled;
+            FunctionChain<?, ?> left = chain.first;
+            FunctionChain<?, ?> right = chain.second;
+            if (functions == null && (left == null || right == null)) {
+                // 其它线程在两次读取之间完成了展开并释放了子链
+                functions = chain.compiled;
+            }
+            if (functions != null) {
+                System.arraycopy(functions, 0, result, position, functions.length);
+                position += functions.length;
+            } else {
+                stack.push(right);
+                stack.push(left);
+            }
+        }
+        return result;
+    }
+}
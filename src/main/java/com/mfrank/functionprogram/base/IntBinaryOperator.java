@@ -0,0 +1,14 @@
+package com.mfrank.functionprogram.base;
+
+public interface IntBinaryOperator {
+
+    int apply(int x, int y);
+
+    default IntFunction partial(int x) {
+        return y -> apply(x, y);
+    }
+
+    default IntBinaryOperator andThen(IntFunction f) {
+        return (x, y) -> f.apply(apply(x, y));
+    }
+}
@@ -0,0 +1,26 @@
+package com.mfrank.functionprogram.base;
+
+public interface IntFunction {
+
+    int apply(int arg);
+
+    default IntFunction compose(IntFunction f) {
+        return x -> apply(f.apply(x));
+    }
+
+    default IntFunction andThen(IntFunction f) {
+        return x -> f.apply(apply(x));
+    }
+
+    static IntFunction identity() {
+        return x -> x;
+    }
+
+    static IntFunction compose(IntFunction f, IntFunction g) {
+        return x -> f.apply(g.apply(x));
+    }
+
+    static IntFunction andThen(IntFunction f, IntFunction g) {
+        return x -> g.apply(f.apply(x));
+    }
+}
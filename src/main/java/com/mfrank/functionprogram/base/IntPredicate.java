@@ -0,0 +1,22 @@
+package com.mfrank.functionprogram.base;
+
+public interface IntPredicate {
+
+    boolean test(int arg);
+
+    default IntPredicate negate() {
+        return x -> !test(x);
+    }
+
+    default IntPredicate and(IntPredicate p) {
+        return x -> test(x) && p.test(x);
+    }
+
+    default IntPredicate or(IntPredicate p) {
+        return x -> test(x) || p.test(x);
+    }
+
+    default IntPredicate compose(IntFunction f) {
+        return x -> test(f.apply(x));
+    }
+}
@@ -0,0 +1,114 @@
+package com.mfrank.functionprogram.base;
+
+/**
+ * 结果为 int 的 TailCall，eval 直接返回 int，递归的过程中不会装箱
+ */
+public abstract class IntTailCall {
+
+    public abstract IntTailCall resume();
+
+    public abstract int eval();
+
+    public abstract boolean isSuspend();
+
+    private IntTailCall() {
+    }
+
+    private static final class Return extends IntTailCall {
+
+        private final int value;
+
+        private Return(int value) {
+            this.value = value;
+        }
+
+        @Override
+        public IntTailCall resume() {
+            throw new IllegalStateException("Return has no resume");
+        }
+
+        @Override
+        public int eval() {
+            return value;
+        }
+
+        @Override
+        public boolean isSuspend() {
+            return false;
+        }
+    }
+
+    private static final class Suspend extends IntTailCall {
+
+        private final Supplier<IntTailCall> resume;
+
+        private Suspend(Supplier<IntTailCall> resume) {
+            this.resume = resume;
+        }
+
+        @Override
+        public IntTailCall resume() {
+            return resume.get();
+        }
+
+        @Override
+        public int eval() {
+            IntTailCall tailRec = this;
+            while (tailRec instanceof Suspend) {
+                tailRec = ((Suspend) tailRec).resume.get();
+            }
+            return tailRec.eval();
+        }
+
+        @Override
+        public boolean isSuspend() {
+            return true;
+        }
+    }
+
+    /**
+     * 可变状态机形式的蹦床，与 TailCall.Loop 相同，每次 bounce 都不分配对象
+     */
+    public abstract static class Loop extends IntTailCall {
+
+        protected Loop() {
+        }
+
+        /**
+         * 执行一步
+         *
+         * @return 如果还需要继续执行则返回true，已经得到结果则返回false
+         */
+        protected abstract boolean step();
+
+        /**
+         * @return 返回 step 结束后的结果
+         */
+        protected abstract int result();
+
+        @Override
+        public IntTailCall resume() {
+            return step() ? this : ret(result());
+        }
+
+        @Override
+        public int eval() {
+            while (step()) {
+            }
+            return result();
+        }
+
+        @Override
+        public boolean isSuspend() {
+            return true;
+        }
+    }
+
+    public static IntTailCall ret(int t) {
+        return new Return(t);
+    }
+
+    public static IntTailCall sus(Supplier<IntTailCall> s) {
+        return new Suspend(s);
+    }
+}
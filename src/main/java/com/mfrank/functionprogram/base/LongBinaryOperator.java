@@ -0,0 +1,14 @@
+package com.mfrank.functionprogram.base;
+
+public interface LongBinaryOperator {
+
+    long apply(long x, long y);
+
+    default LongFunction partial(long x) {
+        return y -> apply(x, y);
+    }
+
+    default LongBinaryOperator andThen(LongFunction f) {
+        return (x, y) -> f.apply(apply(x, y));
+    }
+}
@@ -0,0 +1,26 @@
+package com.mfrank.functionprogram.base;
+
+public interface LongFunction {
+
+    long apply(long arg);
+
+    default LongFunction compose(LongFunction f) {
+        return x -> apply(f.apply(x));
+    }
+
+    default LongFunction andThen(LongFunction f) {
+        return x -> f.apply(apply(x));
+    }
+
+    static LongFunction identity() {
+        return x -> x;
+    }
+
+    static LongFunction compose(LongFunction f, LongFunction g) {
+        return x -> f.apply(g.apply(x));
+    }
+
+    static LongFunction andThen(LongFunction f, LongFunction g) {
+        return x -> g.apply(f.apply(x));
+    }
+}
@@ -0,0 +1,22 @@
+package com.mfrank.functionprogram.base;
+
+public interface LongPredicate {
+
+    boolean test(long arg);
+
+    default LongPredicate negate() {
+        return x -> !test(x);
+    }
+
+    default LongPredicate and(LongPredicate p) {
+        return x -> test(x) && p.test(x);
+    }
+
+    default LongPredicate or(LongPredicate p) {
+        return x -> test(x) || p.test(x);
+    }
+
+    default LongPredicate compose(LongFunction f) {
+        return x -> test(f.apply(x));
+    }
+}
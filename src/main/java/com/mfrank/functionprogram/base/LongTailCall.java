@@ -0,0 +1,114 @@
+package com.mfrank.functionprogram.base;
+
+/**
+ * 结果为 long 的 TailCall，eval 直接返回 long，递归的过程中不会装箱
+ */
+public abstract class LongTailCall {
+
+    public abstract LongTailCall resume();
+
+    public abstract long eval();
+
+    public abstract boolean isSuspend();
+
+    private LongTailCall() {
+    }
+
+    private static final class Return extends LongTailCall {
+
+        private final long value;
+
+        private Return(long value) {
+            this.value = value;
+        }
+
+        @Override
+        public LongTailCall resume() {
+            throw new IllegalStateException("Return has no resume");
+        }
+
+        @Override
+        public long eval() {
+            return value;
+        }
+
+        @Override
+        public boolean isSuspend() {
+            return false;
+        }
+    }
+
+    private static final class Suspend extends LongTailCall {
+
+        private final Supplier<LongTailCall> resume;
+
+        private Suspend(Supplier<LongTailCall> resume) {
+            this.resume = resume;
+        }
+
+        @Override
+        public LongTailCall resume() {
+            return resume.get();
+        }
+
+        @Override
+        public long eval() {
+            LongTailCall tailRec = this;
+            while (tailRec instanceof Suspend) {
+                tailRec = ((Suspend) tailRec).resume.get();
+            }
+            return tailRec.eval();
+        }
+
+        @Override
+        public boolean isSuspend() {
+            return true;
+        }
+    }
+
+    /**
+     * 可变状态机形式的蹦床，与 TailCall.Loop 相同，每次 bounce 都不分配对象
+     */
+    public abstract static class Loop extends LongTailCall {
+
+        protected Loop() {
+        }
+
+        /**
+         * 执行一步
+         *
+         * @return 如果还需要继续执行则返回true，已经得到结果则返回false
+         */
+        protected abstract boolean step();
+
+        /**
+         * @return 返回 step 结束后的结果
+         */
+        protected abstract long result();
+
+        @Override
+        public LongTailCall resume() {
+            return step() ? this : ret(result());
+        }
+
+        @Override
+        public long eval() {
+            while (step()) {
+            }
+            return result();
+        }
+
+        @Override
+        public boolean isSuspend() {
+            return true;
+        }
+    }
+
+    public static LongTailCall ret(long t) {
+        return new Return(t);
+    }
+
+    public static LongTailCall sus(Supplier<LongTailCall> s) {
+        return new Suspend(s);
+    }
+}
@@ -0,0 +1,65 @@
+package com.mfrank.functionprogram.base;
+
+import java.util.ArrayList;
+
+/**
+ * 预先编译的模式匹配，Case.match 的可复用版本。
+ * <p>
+ * 条件和结果都是以输入为参数的函数，匹配器只构建一次，之后可以反复调用。
+ * 调用时按声明顺序依次判断条件，第一个满足的条件决定结果，都不满足时使用 otherwise 的结果；
+ * 除了返回的 Result 之外不分配任何对象。例如：
+ * <pre>
+ * Matcher&lt;String, String&gt; checker = Matcher.&lt;String, String&gt;when(s -&gt; s == null, s -&gt; failure("null"))
+ *         .when(String::isEmpty, s -&gt; failure("empty"))
+ *         .otherwise(Result::success);
+ * </pre>
+ */
+public final class Matcher<T, U> implements Function<T, Result<U>> {
+
+    private final Function<T, Boolean>[] conditions;
+    private final Function<T, Result<U>>[] results;
+    private final Function<T, Result<U>> otherwise;
+
+    private Matcher(Function<T, Boolean>[] conditions, Function<T, Result<U>>[] results, Function<T, Result<U>> otherwise) {
+        this.conditions = conditions;
+        this.results = results;
+        this.otherwise = otherwise;
+    }
+
+    public static <T, U> Builder<T, U> when(Function<T, Boolean> condition, Function<T, Result<U>> result) {
+        return new Builder<T, U>().when(condition, result);
+    }
+
+    @Override
+    public Result<U> apply(T t) {
+        for (int i = 0; i < conditions.length; i++) {
+            if (conditions[i].apply(t)) {
+                return results[i].apply(t);
+            }
+        }
+        return otherwise.apply(t);
+    }
+
+    public static final class Builder<T, U> {
+
+        private final ArrayList<Function<T, Boolean>> conditions = new ArrayList<>();
+        private final ArrayList<Function<T, Result<U>>> results = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder<T, U> when(Function<T, Boolean> condition, Function<T, Result<U>> result) {
+            conditions.add(condition);
+            results.add(result);
+            return this;
+        }
+
+        /**
+         * 以默认情况结束，得到不可变的匹配器
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public Matcher<T, U> otherwise(Function<T, Result<U>> result) {
+            return new Matcher<>(conditions.toArray(new Function[0]), results.toArray(new Function[0]), result);
+        }
+    }
+}
@@ -1,19 +1,228 @@
 package com.mfrank.functionprogram.base;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 public class Memoizer<T, U> {
 
-    private final Map<T, U> cache = new ConcurrentHashMap<>();
+    private static final Object NULL = new Object();
+
+    // 值为计算结果、NULL 或者正在加载的 Pending
+    private final Map<T, Object> cache = new ConcurrentHashMap<>();
 
     private Memoizer(){}
 
+    /**
+     * 记忆化。函数在 map 的锁之外执行，所以可以记忆化递归函数；
+     * 同一个键的并发调用只会执行一次函数，其它调用者等待结果
+     */
     public static <T, U> Function<T, U> memoize(Function<T, U> function){
         return new Memoizer<T, U>().doMemoize(function);
     }
 
+    /**
+     * 记忆化返回 TailCall 的递归函数，命中时直接返回 ret(结果)，
+     * 未命中时在 TailCall 求值完成后写入缓存，因此递归深度不受调用栈限制。
+     * 这种方式不对并发调用去重，并发未命中时可能重复计算
+     */
+    public static <T, U> Function<T, TailCall<U>> memoizeTailCall(Function<T, TailCall<U>> function){
+        return new Memoizer<T, U>().doMemoizeTailCall(function);
+    }
+
+    // 每个 memoize2/memoize3 最多缓存的部分应用个数
+    static final long PARTIALS_SIZE = 1024;
+
+    /**
+     * 记忆化两个参数的柯里化函数，以 Tuple(t, u) 作为组合键缓存结果。
+     * 对同一个 t 的部分应用从有界缓存中返回同一个函数对象，命中时不创建新的闭包；
+     * 缓存最多保留 PARTIALS_SIZE 个部分应用，不会随不同的 t 无限增长
+     */
+    public static <T, U, V> Function<T, Function<U, V>> memoize2(Function<T, Function<U, V>> function){
+        Function<Tuple<T, U>, V> memoized = memoize(key -> function.apply(key._1).apply(key._2));
+        return partials(t -> u -> memoized.apply(new Tuple<>(t, u)));
+    }
+
+    /**
+     * 记忆化三个参数的柯里化函数，以 Tuple3(t, u, v) 作为组合键缓存结果。
+     * 两级部分应用都放在有界缓存中，第二级以 Tuple(t, u) 为键
+     */
+    public static <T, U, V, W> Function<T, Function<U, Function<V, W>>> memoize3(Function<T, Function<U, Function<V, W>>> function){
+        Function<Tuple3<T, U, V>, W> memoized = memoize(key -> function.apply(key._1).apply(key._2).apply(key._3));
+        Function<Tuple<T, U>, Function<V, W>> second = partials(key -> v -> memoized.apply(new Tuple3<>(key._1, key._2, v)));
+        return partials(t -> u -> second.apply(new Tuple<>(t, u)));
+    }
+
+    // 部分应用的缓存，命中时只有一次 ConcurrentHashMap.get，不加锁也不分配；不计入 memoizer 指标
+    private static <T, R> Function<T, R> partials(Function<T, R> function){
+        return builder().maximumSize(PARTIALS_SIZE).withoutMetrics().build(function);
+    }
+
+    /**
+     * 异步批量记忆化，未命中的键在 1 毫秒的窗口内合并，每批最多 256 个键
+     */
+    public static <T, U> AsyncMemoizer<T, U> memoizeAsync(Function<List<T>, Map<T, U>> bulkLoader, Executor executor){
+        return memoizeAsync(bulkLoader, executor, 1, TimeUnit.MILLISECONDS, 256);
+    }
+
+    /**
+     * 异步批量记忆化。返回的函数不会阻塞，未命中的键在 window 时间内合并成一批，
+     * 在 executor 上调用一次 bulkLoader 加载，每批最多 maxBatchSize 个键
+     */
+    public static <T, U> AsyncMemoizer<T, U> memoizeAsync(Function<List<T>, Map<T, U>> bulkLoader, Executor executor,
+                                                          long window, TimeUnit unit, int maxBatchSize){
+        return new AsyncMemoizer<>(bulkLoader, executor, unit.toNanos(window), maxBatchSize);
+    }
+
     private Function<T, U> doMemoize(Function<T, U> function){
-        return input -> cache.computeIfAbsent(input, function::apply);
+        return input -> get(input, function);
+    }
+
+    @SuppressWarnings("unchecked")
+    private U get(T input, Function<T, U> function) {
+        MetricsRecorder metrics = Metrics.recorder();
+        while (true) {
+            Object cached = cache.get(input);
+            if (cached instanceof Pending) {
+                metrics.memoizerHit();
+                return ((Pending<U>) cached).await();
+            }
+            if (cached != null) {
+                metrics.memoizerHit();
+                return cached == NULL ? null : (U) cached;
+            }
+            Pending<U> pending = new Pending<>();
+            if (cache.putIfAbsent(input, pending) != null) {
+                continue;
+            }
+            metrics.memoizerMiss();
+            long start = metrics == MetricsRecorder.NOOP ? 0 : System.nanoTime();
+            U value;
+            try {
+                value = function.apply(input);
+            } catch (Throwable t) {
+                cache.remove(input, pending);
+                pending.fail(t);
+                recordLoad(metrics, start);
+                throw t;
+            }
+            cache.replace(input, pending, value == null ? NULL : value);
+            pending.complete(value);
+            recordLoad(metrics, start);
+            metrics.memoizerSize(1);
+            return value;
+        }
+    }
+
+    static void recordLoad(MetricsRecorder metrics, long start) {
+        if (metrics != MetricsRecorder.NOOP) {
+            metrics.memoizerLoad(System.nanoTime() - start);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Function<T, TailCall<U>> doMemoizeTailCall(Function<T, TailCall<U>> function){
+        return input -> {
+            MetricsRecorder metrics = Metrics.recorder();
+            Object cached = cache.get(input);
+            if (cached != null) {
+                metrics.memoizerHit();
+                return TailCall.ret(cached == NULL ? null : (U) cached);
+            }
+            metrics.memoizerMiss();
+            return TailCall.sus(() -> function.apply(input).map(value -> {
+                if (cache.putIfAbsent(input, value == null ? NULL : value) == null) {
+                    metrics.memoizerSize(1);
+                }
+                return value;
+            }));
+        };
+    }
+
+    /**
+     * 创建可配置容量、过期时间和值引用强度的记忆化函数，
+     * 例如 Memoizer.builder().maximumSize(10_000).expireAfterAccess(10, TimeUnit.MINUTES).softValues().build(f)
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public enum EvictionPolicy {
+        /** 淘汰最久未被访问的条目 */
+        LRU,
+        /** 淘汰访问次数最少的条目 */
+        LFU
+    }
+
+    public static final class Builder {
+
+        private long maximumSize = Long.MAX_VALUE;
+        private EvictionPolicy policy = EvictionPolicy.LRU;
+        private long expireAfterWriteNanos;
+        private long expireAfterAccessNanos;
+        private BoundedMemoizer.Strength strength = BoundedMemoizer.Strength.STRONG;
+        private LongSupplier ticker = System::nanoTime;
+        private boolean recordMetrics = true;
+
+        private Builder() {
+        }
+
+        public Builder maximumSize(long maximumSize) {
+            if (maximumSize < 0) {
+                throw new IllegalArgumentException("maximumSize must not be negative: " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder evictionPolicy(EvictionPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        public Builder expireAfterWrite(long duration, TimeUnit unit) {
+            this.expireAfterWriteNanos = positiveNanos(duration, unit);
+            return this;
+        }
+
+        public Builder expireAfterAccess(long duration, TimeUnit unit) {
+            this.expireAfterAccessNanos = positiveNanos(duration, unit);
+            return this;
+        }
+
+        public Builder softValues() {
+            this.strength = BoundedMemoizer.Strength.SOFT;
+            return this;
+        }
+
+        public Builder weakValues() {
+            this.strength = BoundedMemoizer.Strength.WEAK;
+            return this;
+        }
+
+        Builder ticker(LongSupplier ticker) {
+            this.ticker = ticker;
+            return this;
+        }
+
+        Builder withoutMetrics() {
+            this.recordMetrics = false;
+            return this;
+        }
+
+        public <T, U> Function<T, U> build(Function<T, U> function) {
+            return new BoundedMemoizer<>(function, maximumSize, policy,
+                    expireAfterWriteNanos, expireAfterAccessNanos, strength, ticker, recordMetrics);
+        }
+
+        private static long positiveNanos(long duration, TimeUnit unit) {
+            if (duration <= 0) {
+                throw new IllegalArgumentException("duration must be positive: " + duration);
+            }
+            return unit.toNanos(duration);
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.mfrank.functionprogram.base;
+
+/**
+ * 全局的度量入口。默认安装的是 MetricsRecorder.NOOP，
+ * 此时热点路径只多一次 volatile 读，空方法调用会被 JIT 内联消除，也不会调用 System.nanoTime
+ */
+public final class Metrics {
+
+    private static volatile MetricsRecorder recorder = MetricsRecorder.NOOP;
+
+    private Metrics() {
+    }
+
+    public static MetricsRecorder recorder() {
+        return recorder;
+    }
+
+    public static boolean isEnabled() {
+        return recorder != MetricsRecorder.NOOP;
+    }
+
+    public static void install(MetricsRecorder metricsRecorder) {
+        recorder = metricsRecorder == null ? MetricsRecorder.NOOP : metricsRecorder;
+    }
+
+    public static void uninstall() {
+        recorder = MetricsRecorder.NOOP;
+    }
+
+    /**
+     * 记录一次折叠的元素个数，未启用时不做任何事
+     */
+    public static void fold(long elements) {
+        recorder.fold(elements);
+    }
+}
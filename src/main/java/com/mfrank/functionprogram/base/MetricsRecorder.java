@@ -0,0 +1,60 @@
+package com.mfrank.functionprogram.base;
+
+/**
+ * 度量数据的 SPI，通过 Metrics.install 安装，所有方法默认为空实现。
+ * 实现类会被多个线程并发调用，应当是线程安全且足够廉价的
+ */
+public interface MetricsRecorder {
+
+    /**
+     * 未安装任何实现时使用的空实现，热点路径用引用比较判断是否需要计时
+     */
+    MetricsRecorder NOOP = new MetricsRecorder() {
+    };
+
+    /**
+     * 记忆化函数命中缓存，包括等待其它线程正在进行的加载
+     */
+    default void memoizerHit() {
+    }
+
+    /**
+     * 记忆化函数未命中，需要执行加载
+     */
+    default void memoizerMiss() {
+    }
+
+    /**
+     * 一次加载完成（包括失败的加载）
+     *
+     * @param nanos 加载耗时，单位纳秒
+     */
+    default void memoizerLoad(long nanos) {
+    }
+
+    /**
+     * 缓存的条目数发生变化。调用时不区分是哪一个记忆化函数，
+     * 累加得到的是所有记忆化函数的条目总数，单个缓存的条目数需要由具体的记忆化函数自己提供
+     *
+     * @param delta 增加为正数，淘汰或过期为负数
+     */
+    default void memoizerSize(long delta) {
+    }
+
+    /**
+     * 一次 TailCall 求值完成
+     *
+     * @param bounces 蹦床的跳转次数，即递归的步数
+     * @param nanos   求值耗时，单位纳秒
+     */
+    default void tailCallEval(long bounces, long nanos) {
+    }
+
+    /**
+     * 一次折叠完成
+     *
+     * @param elements 折叠的元素个数
+     */
+    default void fold(long elements) {
+    }
+}
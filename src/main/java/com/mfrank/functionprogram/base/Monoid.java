@@ -0,0 +1,42 @@
+package com.mfrank.functionprogram.base;
+
+/**
+ * 幺半群：一个满足结合律的二元运算以及它的单位元。
+ * 结合律保证了可以把数据切分成任意多段分别计算，再按顺序合并，结果与顺序计算相同
+ */
+public interface Monoid<T> {
+
+    T identity();
+
+    T combine(T x, T y);
+
+    static <T> Monoid<T> of(T identity, BinaryOperator<T> op) {
+        return new Monoid<T>() {
+            @Override
+            public T identity() {
+                return identity;
+            }
+
+            @Override
+            public T combine(T x, T y) {
+                return op.apply(x).apply(y);
+            }
+        };
+    }
+
+    static Monoid<Integer> intSum() {
+        return of(0, x -> y -> x + y);
+    }
+
+    static Monoid<Long> longSum() {
+        return of(0L, x -> y -> x + y);
+    }
+
+    static Monoid<Double> doubleSum() {
+        return of(0.0, x -> y -> x + y);
+    }
+
+    static Monoid<String> stringConcat() {
+        return of("", x -> y -> x + y);
+    }
+}
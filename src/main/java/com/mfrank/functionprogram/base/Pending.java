@@ -0,0 +1,53 @@
+package com.mfrank.functionprogram.base;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * 正在加载中的记忆化结果。同一个键的并发调用者只有一个执行加载，其它调用者等待它的结果（single-flight）。
+ * 加载在 map 的锁之外执行，因此加载函数可以递归调用同一个记忆化函数的其它键。
+ */
+final class Pending<U> {
+
+    private final Thread owner = Thread.currentThread();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private U value;
+    private Throwable failure;
+
+    void complete(U u) {
+        value = u;
+        done.countDown();
+    }
+
+    void fail(Throwable t) {
+        failure = t;
+        done.countDown();
+    }
+
+    U await() {
+        if (owner == Thread.currentThread()) {
+            throw new IllegalStateException("recursive memoized call for a key that is still being loaded");
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw Pending.<RuntimeException>sneakyThrow(failure);
+        }
+        return value;
+    }
+
+    // 加载函数可能偷偷抛出受检异常，等待者原样收到同一个异常
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable t) throws E {
+        throw (E) t;
+    }
+}
@@ -0,0 +1,24 @@
+package com.mfrank.functionprogram.base;
+
+/**
+ * 折叠的一步：把一个元素合并到累加值中。
+ * 驱动折叠的循环在每一步之前检查 isDone，返回true时立即停止，不再读取后续元素；
+ * 循环结束后调用一次 complete 得到最终结果
+ */
+@FunctionalInterface
+public interface Reducer<R, A> {
+
+    R step(R acc, A a);
+
+    default boolean isDone() {
+        return false;
+    }
+
+    default R complete(R acc) {
+        return acc;
+    }
+
+    static <R, A> Reducer<R, A> of(Function<R, Function<A, R>> f) {
+        return (acc, a) -> f.apply(acc).apply(a);
+    }
+}
@@ -1,17 +1,117 @@
 package com.mfrank.functionprogram.base;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 计算结果：成功（Success）、失败（Failure）或者空（Empty）。
+ * <p>
+ * 失败的消息可以用 Supplier 延迟构造，只有真正读取消息时才会拼接字符串；失败也可以只携带一个异常作为原因。
+ * map/flatMap 遇到失败或空时直接返回原对象，不会创建新的实例。
+ * map2/sequence 是累积错误的应用式组合：所有失败都会被收集起来，而不是在第一个失败处停止。
+ */
 public interface Result<T> {
 
     void bind(Effect<T> success, Effect<String> failure);
 
+    boolean isSuccess();
+
+    boolean isFailure();
+
+    boolean isEmpty();
+
+    <U> Result<U> map(Function<T, U> f);
+
+    <U> Result<U> flatMap(Function<T, Result<U>> f);
+
+    T getOrElse(T defaultValue);
+
+    T getOrElse(Supplier<T> defaultValue);
+
+    /**
+     * 失败时用函数的结果代替，成功和空保持不变
+     */
+    Result<T> recover(Function<Failure<T>, T> f);
+
+    /**
+     * 失败时用函数返回的结果代替，成功和空保持不变
+     */
+    Result<T> recoverWith(Function<Failure<T>, Result<T>> f);
+
     static <T> Result<T> failure(String message) {
         return new Failure<>(message);
     }
 
+    /**
+     * 消息延迟构造的失败，适用于消息需要拼接但很少被读取的校验场景
+     */
+    static <T> Result<T> failure(Supplier<String> message) {
+        return new Failure<>(message, null, null);
+    }
+
+    /**
+     * 以异常为原因的失败，消息取自异常
+     */
+    static <T> Result<T> failure(Exception cause) {
+        return new Failure<>(null, cause, null);
+    }
+
     static <T> Result<T> success(T value) {
         return new Success<>(value);
     }
 
+    @SuppressWarnings("unchecked")
+    static <T> Result<T> empty() {
+        return Empty.INSTANCE;
+    }
+
+    /**
+     * 应用式组合两个结果，两个都失败时保留两个失败；与 sequence 一致，失败优先于空结果
+     */
+    @SuppressWarnings("unchecked")
+    static <A, B, C> Result<C> map2(Result<A> a, Result<B> b, Function<A, Function<B, C>> f) {
+        if (a.isFailure() && b.isFailure()) {
+            List<Failure<?>> errors = new ArrayList<>();
+            ((Failure<A>) a).addTo(errors);
+            ((Failure<B>) b).addTo(errors);
+            return new Failure<>(null, null, errors);
+        }
+        if (a.isFailure()) {
+            return (Result<C>) (Result<?>) a;
+        }
+        if (b.isFailure()) {
+            return (Result<C>) (Result<?>) b;
+        }
+        return a.flatMap(x -> b.map(y -> f.apply(x).apply(y)));
+    }
+
+    /**
+     * 一次遍历把结果序列转换为列表的结果，收集所有的失败；没有失败但存在空结果时返回空
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Result<List<T>> sequence(Iterable<Result<T>> results) {
+        List<T> values = new ArrayList<>();
+        List<Failure<?>> errors = null;
+        boolean empty = false;
+        for (Result<T> result : results) {
+            if (result.isSuccess()) {
+                values.add(((Success<T>) result).value);
+            } else if (result.isFailure()) {
+                if (errors == null) {
+                    errors = new ArrayList<>();
+                }
+                ((Failure<T>) result).addTo(errors);
+            } else {
+                empty = true;
+            }
+        }
+        if (errors != null) {
+            return errors.size() == 1 ? (Result<List<T>>) errors.get(0) : new Failure<>(null, null, errors);
+        }
+        return empty ? empty() : success(values);
+    }
+
     class Success<T> implements Result<T> {
 
         private final T value;
@@ -24,20 +124,244 @@ public interface Result<T> {
         public void bind(Effect<T> success, Effect<String> failure) {
             success.apply(value);
         }
-    }
 
+        @Override
+        public boolean isSuccess() {
+            return true;
+        }
+
+        @Override
+        public boolean isFailure() {
+            return false;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public <U> Result<U> map(Function<T, U> f) {
+            return new Success<>(f.apply(value));
+        }
+
+        @Override
+        public <U> Result<U> flatMap(Function<T, Result<U>> f) {
+            return f.apply(value);
+        }
+
+        @Override
+        public T getOrElse(T defaultValue) {
+            return value;
+        }
+
+        @Override
+        public T getOrElse(Supplier<T> defaultValue) {
+            return value;
+        }
+
+        @Override
+        public Result<T> recover(Function<Failure<T>, T> f) {
+            return this;
+        }
+
+        @Override
+        public Result<T> recoverWith(Function<Failure<T>, Result<T>> f) {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Success(%s)", value);
+        }
+    }
 
     class Failure<T> implements Result<T> {
 
-        private final String errorMessage;
+        private final Supplier<String> message;
+        private final Exception cause;
+        // 累积的失败，只包含单个失败，不为 null 时 message 和 cause 都为 null
+        private final List<Failure<?>> errors;
+        private volatile String evaluated;
 
-        private Failure(String s) {
-            errorMessage = s;
+        private Failure(Supplier<String> message, Exception cause, List<Failure<?>> errors) {
+            this.message = message;
+            this.cause = cause;
+            this.errors = errors;
+        }
+
+        private Failure(String message) {
+            this(null, null, null);
+            this.evaluated = String.valueOf(message);
+        }
+
+        /**
+         * 获取失败消息，延迟构造的消息只计算一次；累积的失败返回以 "; " 连接的所有消息
+         */
+        public String getMessage() {
+            String result = evaluated;
+            if (result == null) {
+                result = errors != null
+                        ? String.join("; ", getMessages())
+                        : message != null
+                        ? message.get()
+                        : cause.getMessage() != null ? cause.getMessage() : cause.toString();
+                evaluated = result;
+            }
+            return result;
+        }
+
+        /**
+         * @return 返回失败的原因，没有原因或者是累积的失败时返回null
+         */
+        public Exception getCause() {
+            return cause;
+        }
+
+        /**
+         * @return 返回累积的所有失败，单个失败时只包含自己
+         */
+        public List<Failure<?>> getErrors() {
+            return errors != null ? Collections.unmodifiableList(errors) : Collections.singletonList(this);
+        }
+
+        public List<String> getMessages() {
+            if (errors == null) {
+                return Collections.singletonList(getMessage());
+            }
+            List<String> messages = new ArrayList<>(errors.size());
+            for (Failure<?> error : errors) {
+                messages.add(error.getMessage());
+            }
+            return messages;
+        }
+
+        private void addTo(List<Failure<?>> list) {
+            if (errors != null) {
+                list.addAll(errors);
+            } else {
+                list.add(this);
+            }
         }
 
         @Override
         public void bind(Effect<T> success, Effect<String> failure) {
-            failure.apply(errorMessage);
+            failure.apply(getMessage());
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return false;
+        }
+
+        @Override
+        public boolean isFailure() {
+            return true;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <U> Result<U> map(Function<T, U> f) {
+            return (Result<U>) this;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <U> Result<U> flatMap(Function<T, Result<U>> f) {
+            return (Result<U>) this;
+        }
+
+        @Override
+        public T getOrElse(T defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public T getOrElse(Supplier<T> defaultValue) {
+            return defaultValue.get();
+        }
+
+        @Override
+        public Result<T> recover(Function<Failure<T>, T> f) {
+            return new Success<>(f.apply(this));
+        }
+
+        @Override
+        public Result<T> recoverWith(Function<Failure<T>, Result<T>> f) {
+            return f.apply(this);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Failure(%s)", getMessage());
+        }
+    }
+
+    class Empty<T> implements Result<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final Empty INSTANCE = new Empty();
+
+        private Empty() {
+        }
+
+        @Override
+        public void bind(Effect<T> success, Effect<String> failure) {
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return false;
+        }
+
+        @Override
+        public boolean isFailure() {
+            return false;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public <U> Result<U> map(Function<T, U> f) {
+            return empty();
+        }
+
+        @Override
+        public <U> Result<U> flatMap(Function<T, Result<U>> f) {
+            return empty();
+        }
+
+        @Override
+        public T getOrElse(T defaultValue) {
+            return defaultValue;
+        }
+
+        @Override
+        public T getOrElse(Supplier<T> defaultValue) {
+            return defaultValue.get();
+        }
+
+        @Override
+        public Result<T> recover(Function<Failure<T>, T> f) {
+            return this;
+        }
+
+        @Override
+        public Result<T> recoverWith(Function<Failure<T>, Result<T>> f) {
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "Empty";
         }
     }
 }
@@ -1,5 +1,8 @@
 package com.mfrank.functionprogram.base;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+
 public abstract class TailCall<T> {
 
     public abstract TailCall<T> resume();
@@ -11,7 +14,15 @@ public abstract class TailCall<T> {
     private TailCall() {
     }
 
-    private static class Return<T> extends TailCall<T> {
+    public <U> TailCall<U> map(Function<T, U> f) {
+        return flatMap(t -> ret(f.apply(t)));
+    }
+
+    public <U> TailCall<U> flatMap(Function<T, TailCall<U>> f) {
+        return new FlatMap<>(this, f);
+    }
+
+    private static final class Return<T> extends TailCall<T> {
 
         private final T t;
 
@@ -36,7 +47,7 @@ public abstract class TailCall<T> {
         }
     }
 
-    private static class Suspend<T> extends TailCall<T> {
+    private static final class Suspend<T> extends TailCall<T> {
 
         private final Supplier<TailCall<T>> resume;
 
@@ -52,11 +63,41 @@ public abstract class TailCall<T> {
 
         @Override
         public T eval() {
-            TailCall<T> tailRec = this;
-            while (tailRec.isSuspend()) {
-                tailRec = tailRec.resume();
+            return run(this);
+        }
+
+        @Override
+        public boolean isSuspend() {
+            return true;
+        }
+    }
+
+    private static final class FlatMap<S, T> extends TailCall<T> {
+
+        private final TailCall<S> sub;
+        private final Function<S, TailCall<T>> f;
+
+        private FlatMap(TailCall<S> sub, Function<S, TailCall<T>> f) {
+            this.sub = sub;
+            this.f = f;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public TailCall<T> resume() {
+            if (sub instanceof FlatMap) {
+                // 右结合：(m >>= g) >>= f  ==>  m >>= (x -> g(x) >>= f)
+                FlatMap<Object, S> inner = (FlatMap<Object, S>) sub;
+                return inner.sub.flatMap(x -> inner.f.apply(x).flatMap(f));
             }
-            return tailRec.eval();
+            return sub.isSuspend()
+                    ? sub.resume().flatMap(f)
+                    : f.apply(sub.eval());
+        }
+
+        @Override
+        public T eval() {
+            return run(this);
         }
 
         @Override
@@ -65,11 +106,93 @@ public abstract class TailCall<T> {
         }
     }
 
-    public static <T> Return<T> ret(T t) {
+    /**
+     * 可变状态机形式的蹦床：每次 bounce 只更新自身字段并留在原地，不再为每一步分配 Suspend 和闭包。
+     * 子类通常以匿名类的形式在递归函数内部创建，每次求值都应使用新的实例
+     */
+    public abstract static class Loop<T> extends TailCall<T> {
+
+        protected Loop() {
+        }
+
+        /**
+         * 执行一步
+         *
+         * @return 如果还需要继续执行则返回true，已经得到结果则返回false
+         */
+        protected abstract boolean step();
+
+        /**
+         * @return 返回 step 结束后的结果
+         */
+        protected abstract T result();
+
+        @Override
+        public TailCall<T> resume() {
+            return step() ? this : ret(result());
+        }
+
+        @Override
+        public T eval() {
+            return run(this);
+        }
+
+        @Override
+        public boolean isSuspend() {
+            return true;
+        }
+    }
+
+    /**
+     * 蹦床解释器，用堆上的续延栈代替调用栈，因此任意深度的 flatMap/map 嵌套都不会栈溢出。
+     * 节点类型都是 final 类，分派只用 instanceof 判断，循环本身保持单态。
+     * 跳转次数总是在局部变量中计数，只有安装了 MetricsRecorder 时才计时并上报
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T run(TailCall<T> tailCall) {
+        MetricsRecorder metrics = Metrics.recorder();
+        long start = metrics == MetricsRecorder.NOOP ? 0 : System.nanoTime();
+        long bounces = 0;
+        TailCall<Object> current = (TailCall<Object>) tailCall;
+        Deque<Function<Object, TailCall<Object>>> continuations = null;
+        while (true) {
+            Object value;
+            if (current instanceof Suspend) {
+                current = ((Suspend<Object>) current).resume.get();
+                bounces++;
+                continue;
+            } else if (current instanceof FlatMap) {
+                FlatMap<Object, Object> flatMap = (FlatMap<Object, Object>) current;
+                if (continuations == null) {
+                    continuations = new ArrayDeque<>();
+                }
+                continuations.push(flatMap.f);
+                current = flatMap.sub;
+                continue;
+            } else if (current instanceof Return) {
+                value = ((Return<Object>) current).t;
+            } else {
+                Loop<Object> loop = (Loop<Object>) current;
+                while (loop.step()) {
+                    bounces++;
+                }
+                value = loop.result();
+            }
+            if (continuations == null || continuations.isEmpty()) {
+                if (metrics != MetricsRecorder.NOOP) {
+                    metrics.tailCallEval(bounces, System.nanoTime() - start);
+                }
+                return (T) value;
+            }
+            current = continuations.pop().apply(value);
+        }
+    }
+
+    public static <T> TailCall<T> ret(T t) {
         return new Return<>(t);
     }
 
-    public static <T> Suspend<T> sus(Supplier<TailCall<T>> s) {
+    public static <T> TailCall<T> sus(Supplier<TailCall<T>> s) {
         return new Suspend<>(s);
     }
 }
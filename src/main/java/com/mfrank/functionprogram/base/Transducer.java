@@ -0,0 +1,260 @@
+package com.mfrank.functionprogram.base;
+
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+
+/**
+ * 转换器：把接收 B 的 Reducer 变换为接收 A 的 Reducer，与数据来源无关。
+ * <p>
+ * 多个转换器用 andThen 组合后，作用到同一个 Reducer 上，得到的仍然是一个 Reducer，
+ * 所以 map/filter/take 等任意多个阶段都在一次循环中完成，不会创建中间集合。
+ * take/takeWhile 通过 Reducer.isDone 提前终止遍历。
+ * 有状态的阶段（take、drop 等）在每次 apply 时创建新的状态，同一个转换器可以重复使用
+ */
+public abstract class Transducer<A, B> {
+
+    public abstract <R> Reducer<R, A> apply(Reducer<R, B> reducer);
+
+    /**
+     * 先执行当前转换，再执行 next
+     */
+    public <C> Transducer<A, C> andThen(Transducer<B, C> next) {
+        Transducer<A, B> self = this;
+        return new Transducer<A, C>() {
+            @Override
+            public <R> Reducer<R, A> apply(Reducer<R, C> reducer) {
+                return self.apply(next.apply(reducer));
+            }
+        };
+    }
+
+    /**
+     * 先执行 previous，再执行当前转换
+     */
+    public <C> Transducer<C, B> compose(Transducer<C, A> previous) {
+        return previous.andThen(this);
+    }
+
+    /**
+     * 对任意 Iterable 做转换后的左折叠，只遍历一次，提前终止时不再读取后续元素
+     */
+    public <R> R transduce(Iterable<A> source, R identity, Function<R, Function<B, R>> f) {
+        return reduce(source, apply(Reducer.of(f)), identity);
+    }
+
+    /**
+     * 转换为 Collector，可以用于 java.util.stream。
+     * 有状态的阶段无法正确地合并各段的结果，所以只支持顺序流
+     */
+    public <C, R> Collector<A, ?, R> collector(Collector<? super B, C, R> downstream) {
+        BiConsumer<C, ? super B> accumulator = downstream.accumulator();
+        return Collector.<A, Accumulation<C, A>, R>of(
+                () -> new Accumulation<>(apply((C c, B b) -> {
+                    accumulator.accept(c, b);
+                    return c;
+                }), downstream.supplier().get()),
+                Accumulation::accept,
+                (x, y) -> {
+                    throw new UnsupportedOperationException("transducer collector does not support parallel streams");
+                },
+                accumulation -> downstream.finisher().apply(accumulation.reducer.complete(accumulation.state)));
+    }
+
+    public static <R, A> R reduce(Iterable<A> source, Reducer<R, A> reducer, R identity) {
+        R acc = identity;
+        long count = 0;
+        if (!reducer.isDone()) {
+            for (A a : source) {
+                acc = reducer.step(acc, a);
+                count++;
+                if (reducer.isDone()) {
+                    break;
+                }
+            }
+        }
+        Metrics.fold(count);
+        return reducer.complete(acc);
+    }
+
+    public static <A> Transducer<A, A> identity() {
+        return new Transducer<A, A>() {
+            @Override
+            public <R> Reducer<R, A> apply(Reducer<R, A> reducer) {
+                return reducer;
+            }
+        };
+    }
+
+    public static <A, B> Transducer<A, B> map(Function<A, B> f) {
+        return new Transducer<A, B>() {
+            @Override
+            public <R> Reducer<R, A> apply(Reducer<R, B> reducer) {
+                return new Forward<R, A, B>(reducer) {
+                    @Override
+                    public R step(R acc, A a) {
+                        return down.step(acc, f.apply(a));
+                    }
+                };
+            }
+        };
+    }
+
+    public static <A> Transducer<A, A> filter(Function<A, Boolean> p) {
+        return new Transducer<A, A>() {
+            @Override
+            public <R> Reducer<R, A> apply(Reducer<R, A> reducer) {
+                return new Forward<R, A, A>(reducer) {
+                    @Override
+                    public R step(R acc, A a) {
+                        return p.apply(a) ? down.step(acc, a) : acc;
+                    }
+                };
+            }
+        };
+    }
+
+    public static <A, B> Transducer<A, B> flatMap(Function<A, ? extends Iterable<B>> f) {
+        return new Transducer<A, B>() {
+            @Override
+            public <R> Reducer<R, A> apply(Reducer<R, B> reducer) {
+                return new Forward<R, A, B>(reducer) {
+                    @Override
+                    public R step(R acc, A a) {
+                        R result = acc;
+                        for (B b : f.apply(a)) {
+                            result = down.step(result, b);
+                            if (down.isDone()) {
+                                break;
+                            }
+                        }
+                        return result;
+                    }
+                };
+            }
+        };
+    }
+
+    public static <A> Transducer<A, A> take(long n) {
+        return new Transducer<A, A>() {
+            @Override
+            public <R> Reducer<R, A> apply(Reducer<R, A> reducer) {
+                return new Forward<R, A, A>(reducer) {
+                    private long remaining = n;
+
+                    @Override
+                    public R step(R acc, A a) {
+                        remaining--;
+                        return down.step(acc, a);
+                    }
+
+                    @Override
+                    public boolean isDone() {
+                        return remaining <= 0 || down.isDone();
+                    }
+                };
+            }
+        };
+    }
+
+    public static <A> Transducer<A, A> takeWhile(Function<A, Boolean> p) {
+        return new Transducer<A, A>() {
+            @Override
+            public <R> Reducer<R, A> apply(Reducer<R, A> reducer) {
+                return new Forward<R, A, A>(reducer) {
+                    private boolean done;
+
+                    @Override
+                    public R step(R acc, A a) {
+                        if (p.apply(a)) {
+                            return down.step(acc, a);
+                        }
+                        done = true;
+                        return acc;
+                    }
+
+                    @Override
+                    public boolean isDone() {
+                        return done || down.isDone();
+                    }
+                };
+            }
+        };
+    }
+
+    public static <A> Transducer<A, A> drop(long n) {
+        return new Transducer<A, A>() {
+            @Override
+            public <R> Reducer<R, A> apply(Reducer<R, A> reducer) {
+                return new Forward<R, A, A>(reducer) {
+                    private long remaining = n;
+
+                    @Override
+                    public R step(R acc, A a) {
+                        if (remaining > 0) {
+                            remaining--;
+                            return acc;
+                        }
+                        return down.step(acc, a);
+                    }
+                };
+            }
+        };
+    }
+
+    public static <A> Transducer<A, A> dropWhile(Function<A, Boolean> p) {
+        return new Transducer<A, A>() {
+            @Override
+            public <R> Reducer<R, A> apply(Reducer<R, A> reducer) {
+                return new Forward<R, A, A>(reducer) {
+                    private boolean dropping = true;
+
+                    @Override
+                    public R step(R acc, A a) {
+                        if (dropping && p.apply(a)) {
+                            return acc;
+                        }
+                        dropping = false;
+                        return down.step(acc, a);
+                    }
+                };
+            }
+        };
+    }
+
+    // 把 isDone 和 complete 转发给下游的 Reducer
+    private abstract static class Forward<R, A, B> implements Reducer<R, A> {
+
+        protected final Reducer<R, B> down;
+
+        private Forward(Reducer<R, B> down) {
+            this.down = down;
+        }
+
+        @Override
+        public boolean isDone() {
+            return down.isDone();
+        }
+
+        @Override
+        public R complete(R acc) {
+            return down.complete(acc);
+        }
+    }
+
+    private static final class Accumulation<C, A> {
+
+        private final Reducer<C, A> reducer;
+        private C state;
+
+        private Accumulation(Reducer<C, A> reducer, C state) {
+            this.reducer = reducer;
+            this.state = state;
+        }
+
+        private void accept(A a) {
+            if (!reducer.isDone()) {
+                state = reducer.step(state, a);
+            }
+        }
+    }
+}
@@ -1,11 +1,40 @@
 package com.mfrank.functionprogram.base;
 
+import java.util.Objects;
+
 public class Tuple<T, U> {
     public final T _1;
     public final U _2;
 
+    // 缓存的哈希值，作为记忆化的组合键时避免重复计算，0 表示尚未计算
+    private int hash;
+
     public Tuple(T _1, U _2) {
         this._1 = _1;
         this._2 = _2;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Tuple<?, ?> tuple = (Tuple<?, ?>) o;
+        return Objects.equals(_1, tuple._1) &&
+                Objects.equals(_2, tuple._2);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            h = 31 * Objects.hashCode(_1) + Objects.hashCode(_2);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%s,%s)", _1, _2);
+    }
 }
@@ -8,6 +8,8 @@ public class Tuple3<T, U, V> {
     public final U _2;
     public final V _3;
 
+    // 缓存的哈希值，作为记忆化的组合键时避免重复计算，0 表示尚未计算
+    private int hash;
 
     public Tuple3(T t, U u, V v) {
         _1 = t;
@@ -28,6 +30,16 @@ public class Tuple3<T, U, V> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(_1, _2, _3);
+        int h = hash;
+        if (h == 0) {
+            h = 31 * (31 * Objects.hashCode(_1) + Objects.hashCode(_2)) + Objects.hashCode(_3);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("(%s,%s,%s)", _1, _2, _3);
     }
 }
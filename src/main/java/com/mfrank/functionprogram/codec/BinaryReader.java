@@ -0,0 +1,231 @@
+package com.mfrank.functionprogram.codec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 二进制输入，与 BinaryWriter 的格式对应。
+ * <p>
+ * 读取堆内数组（of）或者内存映射文件（map）：映射文件时按固定大小的区域只读映射，
+ * 当前区域剩余的字节不够时从当前位置开始映射下一个区域。
+ */
+public abstract class BinaryReader implements Closeable {
+
+    ByteBuffer buffer;
+
+    private BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    public static BinaryReader of(byte[] bytes) {
+        return new HeapReader(bytes);
+    }
+
+    /**
+     * 创建读取内存映射文件的输入
+     *
+     * @param path 文件路径
+     * @return 返回文件输入
+     */
+    public static BinaryReader map(Path path) throws IOException {
+        return map(path, BinaryWriter.REGION_SIZE);
+    }
+
+    static BinaryReader map(Path path, int regionSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            return new MappedReader(channel, regionSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 保证当前缓冲区至少还有 required 个字节可读，没有足够的数据时抛出 IllegalStateException
+     */
+    abstract void refill(int required);
+
+    /**
+     * @return 返回剩余未读的字节数
+     */
+    public abstract long remaining();
+
+    /**
+     * @return 返回是否还有未读的数据
+     */
+    public boolean hasRemaining() {
+        return remaining() > 0;
+    }
+
+    private void ensure(int required) {
+        if (buffer.remaining() < required) {
+            refill(required);
+        }
+    }
+
+    public byte readByte() {
+        ensure(1);
+        return buffer.get();
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public int readInt() {
+        ensure(4);
+        return buffer.getInt();
+    }
+
+    public long readLong() {
+        ensure(8);
+        return buffer.getLong();
+    }
+
+    public double readDouble() {
+        ensure(8);
+        return buffer.getDouble();
+    }
+
+    public int readVarInt() {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = readByte();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalStateException("malformed var int");
+    }
+
+    /**
+     * 读取变长编码的长度，并检查剩余的数据至少还能容纳 length 个 elementSize 字节的元素，
+     * 损坏或者伪造的长度在分配数组之前就抛出 IllegalStateException
+     */
+    public int readLength(int elementSize) {
+        int length = readVarInt();
+        if (length < 0 || (long) length * elementSize > remaining()) {
+            throw new IllegalStateException("length " + length + " exceeds remaining data");
+        }
+        return length;
+    }
+
+    public String readString() {
+        byte[] bytes = new byte[readLength(1)];
+        readBytes(bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public void readBytes(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            ensure(1);
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            offset += n;
+            length -= n;
+        }
+    }
+
+    public void readInts(int[] ints, int offset, int length) {
+        while (length > 0) {
+            ensure(4);
+            int n = Math.min(length, buffer.remaining() >> 2);
+            buffer.asIntBuffer().get(ints, offset, n);
+            buffer.position(buffer.position() + (n << 2));
+            offset += n;
+            length -= n;
+        }
+    }
+
+    public void readLongs(long[] longs, int offset, int length) {
+        while (length > 0) {
+            ensure(8);
+            int n = Math.min(length, buffer.remaining() >> 3);
+            buffer.asLongBuffer().get(longs, offset, n);
+            buffer.position(buffer.position() + (n << 3));
+            offset += n;
+            length -= n;
+        }
+    }
+
+    public void readDoubles(double[] doubles, int offset, int length) {
+        while (length > 0) {
+            ensure(8);
+            int n = Math.min(length, buffer.remaining() >> 3);
+            buffer.asDoubleBuffer().get(doubles, offset, n);
+            buffer.position(buffer.position() + (n << 3));
+            offset += n;
+            length -= n;
+        }
+    }
+
+    private static final class HeapReader extends BinaryReader {
+
+        private HeapReader(byte[] bytes) {
+            super(ByteBuffer.wrap(bytes));
+        }
+
+        @Override
+        void refill(int required) {
+            throw new IllegalStateException("unexpected end of data");
+        }
+
+        @Override
+        public long remaining() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class MappedReader extends BinaryReader {
+
+        private final FileChannel channel;
+        private final int regionSize;
+        private final long size;
+        private long regionStart;
+
+        private MappedReader(FileChannel channel, int regionSize) throws IOException {
+            super(channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(regionSize, channel.size())));
+            this.channel = channel;
+            this.regionSize = regionSize;
+            this.size = channel.size();
+        }
+
+        @Override
+        void refill(int required) {
+            long start = regionStart + buffer.position();
+            if (size - start < required) {
+                throw new IllegalStateException("unexpected end of data");
+            }
+            try {
+                long length = Math.min(size - start, Math.max(regionSize, required));
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length).order(ByteOrder.LITTLE_ENDIAN);
+                regionStart = start;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public long remaining() {
+            return size - regionStart - buffer.position();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
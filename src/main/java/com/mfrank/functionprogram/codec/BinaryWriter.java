@@ -0,0 +1,253 @@
+package com.mfrank.functionprogram.codec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 二进制输出，所有数值按小端序写入。
+ * <p>
+ * 写入堆内数组（heap）或者内存映射文件（map）：映射文件时按固定大小的区域依次映射，
+ * 当前区域剩余空间不足时从当前位置开始映射下一个区域，不需要中间的堆内缓冲区。
+ * 基本类型数组通过 IntBuffer/LongBuffer/DoubleBuffer 视图批量复制。
+ */
+public abstract class BinaryWriter implements Closeable {
+
+    static final int REGION_SIZE = 64 << 20;
+
+    ByteBuffer buffer;
+
+    private BinaryWriter(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * 创建写入堆内数组的输出，用 toByteArray 取得结果
+     */
+    public static HeapWriter heap() {
+        return new HeapWriter(256);
+    }
+
+    /**
+     * 创建写入内存映射文件的输出，文件已存在时被覆盖，close 时把文件截断为实际写入的长度
+     *
+     * @param path 文件路径
+     * @return 返回文件输出
+     */
+    public static BinaryWriter map(Path path) throws IOException {
+        return map(path, REGION_SIZE);
+    }
+
+    static BinaryWriter map(Path path, int regionSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            return new MappedWriter(channel, regionSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 保证当前缓冲区至少还有 required 个字节的空间
+     */
+    abstract void grow(int required);
+
+    /**
+     * @return 返回已经写入的字节数
+     */
+    public abstract long position();
+
+    private void ensure(int required) {
+        if (buffer.remaining() < required) {
+            grow(required);
+        }
+    }
+
+    public BinaryWriter writeByte(byte b) {
+        ensure(1);
+        buffer.put(b);
+        return this;
+    }
+
+    public BinaryWriter writeBoolean(boolean b) {
+        return writeByte(b ? (byte) 1 : (byte) 0);
+    }
+
+    public BinaryWriter writeInt(int i) {
+        ensure(4);
+        buffer.putInt(i);
+        return this;
+    }
+
+    public BinaryWriter writeLong(long l) {
+        ensure(8);
+        buffer.putLong(l);
+        return this;
+    }
+
+    public BinaryWriter writeDouble(double d) {
+        ensure(8);
+        buffer.putDouble(d);
+        return this;
+    }
+
+    /**
+     * 变长编码的非负整数，每个字节 7 位，小于 128 的值只占一个字节，用于长度
+     */
+    public BinaryWriter writeVarInt(int i) {
+        if (i < 0) {
+            throw new IllegalArgumentException("negative length: " + i);
+        }
+        ensure(5);
+        while ((i & ~0x7F) != 0) {
+            buffer.put((byte) ((i & 0x7F) | 0x80));
+            i >>>= 7;
+        }
+        buffer.put((byte) i);
+        return this;
+    }
+
+    /**
+     * UTF-8 编码的字符串，前面是变长编码的字节数
+     */
+    public BinaryWriter writeString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        return writeBytes(bytes, 0, bytes.length);
+    }
+
+    public BinaryWriter writeBytes(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            ensure(1);
+            int n = Math.min(length, buffer.remaining());
+            buffer.put(bytes, offset, n);
+            offset += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    public BinaryWriter writeInts(int[] ints, int offset, int length) {
+        while (length > 0) {
+            ensure(4);
+            int n = Math.min(length, buffer.remaining() >> 2);
+            buffer.asIntBuffer().put(ints, offset, n);
+            buffer.position(buffer.position() + (n << 2));
+            offset += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    public BinaryWriter writeLongs(long[] longs, int offset, int length) {
+        while (length > 0) {
+            ensure(8);
+            int n = Math.min(length, buffer.remaining() >> 3);
+            buffer.asLongBuffer().put(longs, offset, n);
+            buffer.position(buffer.position() + (n << 3));
+            offset += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    public BinaryWriter writeDoubles(double[] doubles, int offset, int length) {
+        while (length > 0) {
+            ensure(8);
+            int n = Math.min(length, buffer.remaining() >> 3);
+            buffer.asDoubleBuffer().put(doubles, offset, n);
+            buffer.position(buffer.position() + (n << 3));
+            offset += n;
+            length -= n;
+        }
+        return this;
+    }
+
+    /**
+     * 写入堆内数组的输出，由 heap 创建
+     */
+    public static final class HeapWriter extends BinaryWriter {
+
+        private HeapWriter(int capacity) {
+            super(ByteBuffer.allocate(capacity));
+        }
+
+        @Override
+        void grow(int required) {
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + required);
+            ByteBuffer grown = ByteBuffer.wrap(Arrays.copyOf(buffer.array(), capacity)).order(ByteOrder.LITTLE_ENDIAN);
+            grown.position(buffer.position());
+            buffer = grown;
+        }
+
+        @Override
+        public long position() {
+            return buffer.position();
+        }
+
+        /**
+         * 复制已经写入的内容
+         */
+        public byte[] toByteArray() {
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class MappedWriter extends BinaryWriter {
+
+        private final FileChannel channel;
+        private final int regionSize;
+        // 当前区域在文件中的起始位置
+        private long regionStart;
+
+        private MappedWriter(FileChannel channel, int regionSize) throws IOException {
+            super(channel.map(FileChannel.MapMode.READ_WRITE, 0, regionSize));
+            this.channel = channel;
+            this.regionSize = regionSize;
+        }
+
+        @Override
+        void grow(int required) {
+            long start = position();
+            try {
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, start, Math.max(regionSize, required));
+                region.order(ByteOrder.LITTLE_ENDIAN);
+                buffer = region;
+                regionStart = start;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public long position() {
+            return regionStart + buffer.position();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!channel.isOpen()) {
+                return;
+            }
+            try {
+                channel.truncate(position());
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
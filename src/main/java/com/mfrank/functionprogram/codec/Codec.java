@@ -0,0 +1,42 @@
+package com.mfrank.functionprogram.codec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 值的二进制编码，常用的编码由 Codecs 提供，可以组合出 List、Tuple 等结构的编码
+ */
+public interface Codec<A> {
+
+    void write(BinaryWriter out, A a);
+
+    A read(BinaryReader in);
+
+    default byte[] encode(A a) {
+        BinaryWriter.HeapWriter out = BinaryWriter.heap();
+        write(out, a);
+        return out.toByteArray();
+    }
+
+    default A decode(byte[] bytes) {
+        return read(BinaryReader.of(bytes));
+    }
+
+    /**
+     * 通过内存映射写入文件，文件已存在时被覆盖
+     */
+    default void save(Path path, A a) throws IOException {
+        try (BinaryWriter out = BinaryWriter.map(path)) {
+            write(out, a);
+        }
+    }
+
+    /**
+     * 通过内存映射读取 save 写入的文件
+     */
+    default A load(Path path) throws IOException {
+        try (BinaryReader in = BinaryReader.map(path)) {
+            return read(in);
+        }
+    }
+}
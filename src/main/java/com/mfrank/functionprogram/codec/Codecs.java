@@ -0,0 +1,315 @@
+package com.mfrank.functionprogram.codec;
+
+import com.mfrank.functionprogram.base.Tuple;
+import com.mfrank.functionprogram.base.Tuple3;
+import com.mfrank.functionprogram.collection.DoubleList;
+import com.mfrank.functionprogram.collection.IntList;
+import com.mfrank.functionprogram.collection.List;
+import com.mfrank.functionprogram.collection.LongList;
+
+/**
+ * 常用的编码。
+ * <p>
+ * 列表的格式是变长编码的长度加上依次排列的元素，写入和读取都是循环，不会因为列表太长而栈溢出；
+ * 读取时用 List.builder 从前向后构建，不需要反转。
+ * 元素编码为 INT/LONG/DOUBLE 时按块拆箱后批量复制，IntList/LongList/DoubleList 直接按数组批量复制，
+ * 这两种方式的格式与逐个元素写入相同。
+ */
+public final class Codecs {
+
+    private static final int CHUNK_SIZE = 4096;
+
+    private Codecs() {
+    }
+
+    public static final Codec<Integer> INT = new Codec<Integer>() {
+        @Override
+        public void write(BinaryWriter out, Integer i) {
+            out.writeInt(i);
+        }
+
+        @Override
+        public Integer read(BinaryReader in) {
+            return in.readInt();
+        }
+    };
+
+    public static final Codec<Long> LONG = new Codec<Long>() {
+        @Override
+        public void write(BinaryWriter out, Long l) {
+            out.writeLong(l);
+        }
+
+        @Override
+        public Long read(BinaryReader in) {
+            return in.readLong();
+        }
+    };
+
+    public static final Codec<Double> DOUBLE = new Codec<Double>() {
+        @Override
+        public void write(BinaryWriter out, Double d) {
+            out.writeDouble(d);
+        }
+
+        @Override
+        public Double read(BinaryReader in) {
+            return in.readDouble();
+        }
+    };
+
+    public static final Codec<Boolean> BOOLEAN = new Codec<Boolean>() {
+        @Override
+        public void write(BinaryWriter out, Boolean b) {
+            out.writeBoolean(b);
+        }
+
+        @Override
+        public Boolean read(BinaryReader in) {
+            return in.readBoolean();
+        }
+    };
+
+    public static final Codec<String> STRING = new Codec<String>() {
+        @Override
+        public void write(BinaryWriter out, String s) {
+            out.writeString(s);
+        }
+
+        @Override
+        public String read(BinaryReader in) {
+            return in.readString();
+        }
+    };
+
+    public static final Codec<IntList> INT_LIST = new Codec<IntList>() {
+        @Override
+        public void write(BinaryWriter out, IntList list) {
+            int[] elements = list.toArray();
+            out.writeVarInt(elements.length);
+            out.writeInts(elements, 0, elements.length);
+        }
+
+        @Override
+        public IntList read(BinaryReader in) {
+            int[] elements = new int[in.readLength(4)];
+            in.readInts(elements, 0, elements.length);
+            return IntList.list(elements);
+        }
+    };
+
+    public static final Codec<LongList> LONG_LIST = new Codec<LongList>() {
+        @Override
+        public void write(BinaryWriter out, LongList list) {
+            long[] elements = list.toArray();
+            out.writeVarInt(elements.length);
+            out.writeLongs(elements, 0, elements.length);
+        }
+
+        @Override
+        public LongList read(BinaryReader in) {
+            long[] elements = new long[in.readLength(8)];
+            in.readLongs(elements, 0, elements.length);
+            return LongList.list(elements);
+        }
+    };
+
+    public static final Codec<DoubleList> DOUBLE_LIST = new Codec<DoubleList>() {
+        @Override
+        public void write(BinaryWriter out, DoubleList list) {
+            double[] elements = list.toArray();
+            out.writeVarInt(elements.length);
+            out.writeDoubles(elements, 0, elements.length);
+        }
+
+        @Override
+        public DoubleList read(BinaryReader in) {
+            double[] elements = new double[in.readLength(8)];
+            in.readDoubles(elements, 0, elements.length);
+            return DoubleList.list(elements);
+        }
+    };
+
+    /**
+     * 可以为 null 的值，前面加一个字节的标记
+     */
+    public static <A> Codec<A> nullable(Codec<A> codec) {
+        return new Codec<A>() {
+            @Override
+            public void write(BinaryWriter out, A a) {
+                out.writeBoolean(a != null);
+                if (a != null) {
+                    codec.write(out, a);
+                }
+            }
+
+            @Override
+            public A read(BinaryReader in) {
+                return in.readBoolean() ? codec.read(in) : null;
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A> Codec<List<A>> list(Codec<A> element) {
+        if (element == INT) {
+            return (Codec<List<A>>) (Codec<?>) INT_ELEMENTS;
+        }
+        if (element == LONG) {
+            return (Codec<List<A>>) (Codec<?>) LONG_ELEMENTS;
+        }
+        if (element == DOUBLE) {
+            return (Codec<List<A>>) (Codec<?>) DOUBLE_ELEMENTS;
+        }
+        return new Codec<List<A>>() {
+            @Override
+            public void write(BinaryWriter out, List<A> list) {
+                out.writeVarInt(list.length());
+                for (A a : list) {
+                    element.write(out, a);
+                }
+            }
+
+            @Override
+            public List<A> read(BinaryReader in) {
+                int length = in.readVarInt();
+                List.Builder<A> builder = List.builder(Math.min(length, CHUNK_SIZE));
+                for (int i = 0; i < length; i++) {
+                    builder.add(element.read(in));
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    public static <T, U> Codec<Tuple<T, U>> tuple(Codec<T> first, Codec<U> second) {
+        return new Codec<Tuple<T, U>>() {
+            @Override
+            public void write(BinaryWriter out, Tuple<T, U> t) {
+                first.write(out, t._1);
+                second.write(out, t._2);
+            }
+
+            @Override
+            public Tuple<T, U> read(BinaryReader in) {
+                T _1 = first.read(in);
+                return new Tuple<>(_1, second.read(in));
+            }
+        };
+    }
+
+    public static <T, U, V> Codec<Tuple3<T, U, V>> tuple3(Codec<T> first, Codec<U> second, Codec<V> third) {
+        return new Codec<Tuple3<T, U, V>>() {
+            @Override
+            public void write(BinaryWriter out, Tuple3<T, U, V> t) {
+                first.write(out, t._1);
+                second.write(out, t._2);
+                third.write(out, t._3);
+            }
+
+            @Override
+            public Tuple3<T, U, V> read(BinaryReader in) {
+                T _1 = first.read(in);
+                U _2 = second.read(in);
+                return new Tuple3<>(_1, _2, third.read(in));
+            }
+        };
+    }
+
+    // 装箱列表的快速路径：每次拆箱一块元素再批量复制，避免逐个元素检查剩余空间
+    private static final Codec<List<Integer>> INT_ELEMENTS = new Codec<List<Integer>>() {
+        @Override
+        public void write(BinaryWriter out, List<Integer> list) {
+            out.writeVarInt(list.length());
+            int[] chunk = new int[CHUNK_SIZE];
+            int n = 0;
+            for (int i : list) {
+                chunk[n++] = i;
+                if (n == CHUNK_SIZE) {
+                    out.writeInts(chunk, 0, n);
+                    n = 0;
+                }
+            }
+            out.writeInts(chunk, 0, n);
+        }
+
+        @Override
+        public List<Integer> read(BinaryReader in) {
+            int length = in.readVarInt();
+            List.Builder<Integer> builder = List.builder(Math.min(length, CHUNK_SIZE));
+            int[] chunk = new int[Math.min(length, CHUNK_SIZE)];
+            for (int remaining = length; remaining > 0; remaining -= chunk.length) {
+                int n = Math.min(remaining, chunk.length);
+                in.readInts(chunk, 0, n);
+                for (int i = 0; i < n; i++) {
+                    builder.add(chunk[i]);
+                }
+            }
+            return builder.build();
+        }
+    };
+
+    private static final Codec<List<Long>> LONG_ELEMENTS = new Codec<List<Long>>() {
+        @Override
+        public void write(BinaryWriter out, List<Long> list) {
+            out.writeVarInt(list.length());
+            long[] chunk = new long[CHUNK_SIZE];
+            int n = 0;
+            for (long l : list) {
+                chunk[n++] = l;
+                if (n == CHUNK_SIZE) {
+                    out.writeLongs(chunk, 0, n);
+                    n = 0;
+                }
+            }
+            out.writeLongs(chunk, 0, n);
+        }
+
+        @Override
+        public List<Long> read(BinaryReader in) {
+            int length = in.readVarInt();
+            List.Builder<Long> builder = List.builder(Math.min(length, CHUNK_SIZE));
+            long[] chunk = new long[Math.min(length, CHUNK_SIZE)];
+            for (int remaining = length; remaining > 0; remaining -= chunk.length) {
+                int n = Math.min(remaining, chunk.length);
+                in.readLongs(chunk, 0, n);
+                for (int i = 0; i < n; i++) {
+                    builder.add(chunk[i]);
+                }
+            }
+            return builder.build();
+        }
+    };
+
+    private static final Codec<List<Double>> DOUBLE_ELEMENTS = new Codec<List<Double>>() {
+        @Override
+        public void write(BinaryWriter out, List<Double> list) {
+            out.writeVarInt(list.length());
+            double[] chunk = new double[CHUNK_SIZE];
+            int n = 0;
+            for (double d : list) {
+                chunk[n++] = d;
+                if (n == CHUNK_SIZE) {
+                    out.writeDoubles(chunk, 0, n);
+                    n = 0;
+                }
+            }
+            out.writeDoubles(chunk, 0, n);
+        }
+
+        @Override
+        public List<Double> read(BinaryReader in) {
+            int length = in.readVarInt();
+            List.Builder<Double> builder = List.builder(Math.min(length, CHUNK_SIZE));
+            double[] chunk = new double[Math.min(length, CHUNK_SIZE)];
+            for (int remaining = length; remaining > 0; remaining -= chunk.length) {
+                int n = Math.min(remaining, chunk.length);
+                in.readDoubles(chunk, 0, n);
+                for (int i = 0; i < n; i++) {
+                    builder.add(chunk[i]);
+                }
+            }
+            return builder.build();
+        }
+    };
+}
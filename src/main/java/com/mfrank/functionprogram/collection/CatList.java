@@ -0,0 +1,252 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Function;
+
+import java.util.ArrayList;
+
+/**
+ * 可连接的持久化列表（catenable list）。
+ * <p>
+ * 非空的列表由头元素和跟在它后面的子列表队列组成，cons/append/concat 只需要在队列末尾再加一个列表，都是 O(1) 的。
+ * tail 只连接第一个子列表，其余子列表的连接被挂起并记住结果（Okasaki 的 linkAll），
+ * 因此即使对同一个旧版本反复调用 tail，每次也只做 O(1) 的工作，已经求值的连接不会重复。
+ * 挂起的连接用循环求值，不会栈溢出。适合先由许多小块拼接出结果，最后一次性转换为 List。
+ */
+public abstract class CatList<A> {
+
+    @SuppressWarnings("rawtypes")
+    private static final CatList EMPTY = new Empty();
+
+    /**
+     * 获取第一个元素
+     *
+     * @return 返回第一个元素
+     */
+    public abstract A head();
+
+    /**
+     * 获取除第一个元素之外的其它元素组成的列表
+     *
+     * @return 返回移除第一个元素后的列表
+     */
+    public abstract CatList<A> tail();
+
+    /**
+     * 元素个数
+     *
+     * @return 返回列表中元素的个数
+     */
+    public abstract int size();
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private CatList() {
+    }
+
+    /**
+     * 在头部添加一个元素
+     *
+     * @param a 待添加的元素
+     * @return 返回添加元素后的列表
+     */
+    public CatList<A> cons(A a) {
+        return new Cat<A>(a, Queue.empty(), 1).concat(this);
+    }
+
+    /**
+     * 在尾部添加一个元素
+     *
+     * @param a 待添加的元素
+     * @return 返回添加元素后的列表
+     */
+    public CatList<A> append(A a) {
+        return concat(new Cat<>(a, Queue.empty(), 1));
+    }
+
+    /**
+     * 在当前列表之后连接另一个列表
+     *
+     * @param other 待连接的列表
+     * @return 返回连接后的列表
+     */
+    public CatList<A> concat(CatList<A> other) {
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        Cat<A> cat = (Cat<A>) this;
+        return cat.link(other);
+    }
+
+    /**
+     * 左折叠
+     *
+     * @param identity 初始值
+     * @param f        折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        B acc = identity;
+        for (CatList<A> list = this; !list.isEmpty(); list = list.tail()) {
+            acc = f.apply(acc).apply(list.head());
+        }
+        return acc;
+    }
+
+    /**
+     * 转换为 List
+     *
+     * @return 返回包含相同元素的列表
+     */
+    public List<A> toList() {
+        ArrayList<A> buffer = new ArrayList<>(size());
+        for (CatList<A> list = this; !list.isEmpty(); list = list.tail()) {
+            buffer.add(list.head());
+        }
+        return List.fromJavaList(buffer);
+    }
+
+    @Override
+    public String toString() {
+        return foldLeft(new StringBuilder("["), sb -> a -> sb.length() == 1 ? sb.append(a) : sb.append(", ").append(a))
+                .append("]").toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A> CatList<A> empty() {
+        return EMPTY;
+    }
+
+    @SafeVarargs
+    public static <A> CatList<A> of(A... as) {
+        CatList<A> result = empty();
+        for (A a : as) {
+            result = result.append(a);
+        }
+        return result;
+    }
+
+    /**
+     * 从 List 创建
+     *
+     * @param list 元素来源
+     * @return 返回包含相同元素的列表
+     */
+    public static <A> CatList<A> fromList(List<A> list) {
+        CatList<A> result = empty();
+        for (List<A> rest = list; !rest.isEmpty(); rest = rest.tail()) {
+            result = result.append(rest.head());
+        }
+        return result;
+    }
+
+    private static final class Empty<A> extends CatList<A> {
+
+        @Override
+        public A head() {
+            throw new IllegalStateException("head called on empty list");
+        }
+
+        @Override
+        public CatList<A> tail() {
+            throw new IllegalStateException("tail called on empty list");
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+
+    private static final class Cat<A> extends CatList<A> {
+
+        private final A head;
+        // 依次连接在 head 之后的非空子列表
+        private final Queue<Suspension<A>> children;
+        private final int size;
+
+        private Cat(A head, Queue<Suspension<A>> children, int size) {
+            this.head = head;
+            this.children = children;
+            this.size = size;
+        }
+
+        private Cat<A> link(CatList<A> other) {
+            return link(new Suspension<>(other));
+        }
+
+        private Cat<A> link(Suspension<A> other) {
+            return new Cat<>(head, children.enqueue(other), size + other.size);
+        }
+
+        @Override
+        public A head() {
+            return head;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public CatList<A> tail() {
+            return children.isEmpty() ? empty() : new Suspension<>(children, size - 1).force();
+        }
+    }
+
+    /**
+     * 挂起的 linkAll(q) = q1 ++ linkAll(q2 ... qk)，只在需要时求值一次，结果被所有共享它的版本复用
+     */
+    private static final class Suspension<A> {
+
+        // 尚未连接的子列表，求值后置为 null，不再引用它们
+        private volatile Queue<Suspension<A>> pending;
+        private CatList<A> value;
+        private final int size;
+
+        private Suspension(CatList<A> value) {
+            this.value = value;
+            this.size = value.size();
+        }
+
+        private Suspension(Queue<Suspension<A>> pending, int size) {
+            this.pending = pending;
+            this.size = size;
+        }
+
+        // 第一个子列表本身也可能是挂起的连接，先沿着这条链找到所有未求值的节点，再从里向外求值
+        private CatList<A> force() {
+            if (pending != null) {
+                ArrayList<Suspension<A>> chain = new ArrayList<>();
+                for (Suspension<A> s = this; ; ) {
+                    Queue<Suspension<A>> q = s.pending;
+                    if (q == null) {
+                        break;
+                    }
+                    chain.add(s);
+                    s = q.peek();
+                }
+                for (int i = chain.size() - 1; i >= 0; i--) {
+                    chain.get(i).evaluate();
+                }
+            }
+            return value;
+        }
+
+        private synchronized void evaluate() {
+            Queue<Suspension<A>> q = pending;
+            if (q == null) {
+                return;
+            }
+            CatList<A> first = q.peek().force();
+            Queue<Suspension<A>> rest = q.dequeue();
+            value = rest.isEmpty() ? first : ((Cat<A>) first).link(new Suspension<>(rest, size - first.size()));
+            pending = null;
+        }
+    }
+}
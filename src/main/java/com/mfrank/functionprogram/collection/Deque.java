@@ -0,0 +1,211 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Function;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 持久化双端队列，银行家双端队列（banker's deque）。
+ * <p>
+ * 元素分别保存在头部的 front 列表和逆序保存的尾部 rear 列表中，两端的添加、删除和读取都只操作列表的头部。
+ * 任意一端的长度超过另一端的 C 倍加一时，把所有元素重新平均分成两半，而不是把一端整体反转到另一端，
+ * 重新平衡的 O(n) 代价由之后至少 n/2 次操作分摊，因此两端的操作都是均摊 O(1) 的，交替操作两端也不会退化。
+ * 与 Queue 不同，这是均摊而不是最坏情况的界：对同一个旧版本反复触发重新平衡时每次都要付出 O(n)。
+ */
+public final class Deque<A> implements Iterable<A> {
+
+    private static final int C = 3;
+
+    @SuppressWarnings("rawtypes")
+    private static final Deque EMPTY = new Deque<>(List.list(), 0, List.list(), 0);
+
+    private final List<A> front;
+    private final int frontSize;
+    // 逆序保存的尾部
+    private final List<A> rear;
+    private final int rearSize;
+
+    private Deque(List<A> front, int frontSize, List<A> rear, int rearSize) {
+        this.front = front;
+        this.frontSize = frontSize;
+        this.rear = rear;
+        this.rearSize = rearSize;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A> Deque<A> empty() {
+        return EMPTY;
+    }
+
+    @SafeVarargs
+    public static <A> Deque<A> of(A... as) {
+        Deque<A> result = empty();
+        for (A a : as) {
+            result = result.pushBack(a);
+        }
+        return result;
+    }
+
+    public static <A> Deque<A> fromIterable(Iterable<? extends A> as) {
+        Deque<A> result = empty();
+        for (A a : as) {
+            result = result.pushBack(a);
+        }
+        return result;
+    }
+
+    /**
+     * 元素个数
+     *
+     * @return 返回双端队列中元素的个数
+     */
+    public int size() {
+        return frontSize + rearSize;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * 在头部添加一个元素
+     *
+     * @param a 待添加的元素
+     * @return 返回添加元素后的双端队列
+     */
+    public Deque<A> pushFront(A a) {
+        return balance(front.cons(a), frontSize + 1, rear, rearSize);
+    }
+
+    /**
+     * 在尾部添加一个元素
+     *
+     * @param a 待添加的元素
+     * @return 返回添加元素后的双端队列
+     */
+    public Deque<A> pushBack(A a) {
+        return balance(front, frontSize, rear.cons(a), rearSize + 1);
+    }
+
+    /**
+     * 获取第一个元素
+     *
+     * @return 返回头部的元素
+     */
+    public A peekFirst() {
+        checkNotEmpty("peekFirst");
+        // 只有一个元素时它可能在任意一端
+        return frontSize == 0 ? rear.head() : front.head();
+    }
+
+    /**
+     * 获取最后一个元素
+     *
+     * @return 返回尾部的元素
+     */
+    public A peekLast() {
+        checkNotEmpty("peekLast");
+        return rearSize == 0 ? front.head() : rear.head();
+    }
+
+    /**
+     * 删除第一个元素
+     *
+     * @return 返回删除头部元素后的双端队列
+     */
+    public Deque<A> popFront() {
+        checkNotEmpty("popFront");
+        return frontSize == 0 ? empty() : balance(front.tail(), frontSize - 1, rear, rearSize);
+    }
+
+    /**
+     * 删除最后一个元素
+     *
+     * @return 返回删除尾部元素后的双端队列
+     */
+    public Deque<A> popBack() {
+        checkNotEmpty("popBack");
+        return rearSize == 0 ? empty() : balance(front, frontSize, rear.tail(), rearSize - 1);
+    }
+
+    /**
+     * 从头到尾左折叠
+     *
+     * @param identity 初始值
+     * @param f        折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        B acc = identity;
+        for (A a : this) {
+            acc = f.apply(acc).apply(a);
+        }
+        return acc;
+    }
+
+    public List<A> toList() {
+        return List.fromIterable(this);
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private Deque<A> rest = Deque.this;
+
+            @Override
+            public boolean hasNext() {
+                return !rest.isEmpty();
+            }
+
+            @Override
+            public A next() {
+                if (rest.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                A a = rest.peekFirst();
+                rest = rest.popFront();
+                return a;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return foldLeft(new StringBuilder("["), sb -> a -> sb.length() == 1 ? sb.append(a) : sb.append(", ").append(a))
+                .append("]").toString();
+    }
+
+    private void checkNotEmpty(String operation) {
+        if (isEmpty()) {
+            throw new IllegalStateException(operation + " called on empty deque");
+        }
+    }
+
+    // 两端的长度都不超过另一端的 C 倍加一，元素不少于两个时两端都不为空
+    @SuppressWarnings("unchecked")
+    private static <A> Deque<A> balance(List<A> front, int frontSize, List<A> rear, int rearSize) {
+        if (frontSize <= C * rearSize + 1 && rearSize <= C * frontSize + 1) {
+            return new Deque<>(front, frontSize, rear, rearSize);
+        }
+        int size = frontSize + rearSize;
+        Object[] elements = new Object[size];
+        int i = 0;
+        for (A a : front) {
+            elements[i++] = a;
+        }
+        for (A a : rear) {
+            elements[size - 1 - (i++ - frontSize)] = a;
+        }
+        int half = size / 2;
+        List<A> newFront = List.list();
+        for (int j = half - 1; j >= 0; j--) {
+            newFront = newFront.cons((A) elements[j]);
+        }
+        List<A> newRear = List.list();
+        for (int j = half; j < size; j++) {
+            newRear = newRear.cons((A) elements[j]);
+        }
+        return new Deque<>(newFront, half, newRear, size - half);
+    }
+}
@@ -0,0 +1,257 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.IntBinaryOperator;
+import com.mfrank.functionprogram.base.IntFunction;
+import com.mfrank.functionprogram.base.IntPredicate;
+
+/**
+ * 元素为 int 的持久化单链表，元素直接保存在节点的 int 字段中，
+ * 折叠、映射和过滤的过程中不会产生装箱对象
+ */
+public abstract class IntList {
+
+    private static final IntList NIL = new Nil();
+
+    /**
+     * 获取第一个元素
+     *
+     * @return 返回第一个元素
+     */
+    public abstract int head();
+
+    /**
+     * 获取除第一个元素之外的其它元素组成的列表
+     *
+     * @return 返回移除第一个元素后的列表
+     */
+    public abstract IntList tail();
+
+    /**
+     * 列表是否为空
+     *
+     * @return 如果列表为空，则返回true，否则返回false
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * 元素个数，节点中保存了长度，因此是 O(1) 的
+     *
+     * @return 返回列表中元素的个数
+     */
+    public abstract int size();
+
+    private IntList() {
+    }
+
+    /**
+     * 添加一个元素到列表头部
+     *
+     * @param a 待添加的元素
+     * @return 返回添加元素后的列表
+     */
+    public IntList cons(int a) {
+        return new Cons(a, this);
+    }
+
+    /**
+     * 左折叠
+     * @param identity 初始值
+     * @param f 折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public int foldLeft(int identity, IntBinaryOperator f) {
+        int acc = identity;
+        for (IntList list = this; !list.isEmpty(); list = list.tail()) {
+            acc = f.apply(acc, list.head());
+        }
+        return acc;
+    }
+
+    /**
+     * 右折叠，先把元素复制到 int 数组中再从后向前折叠，不反转列表
+     * @param identity 初始值
+     * @param f 折叠函数
+     * @return 返回右折叠后的结果
+     */
+    public int foldRight(int identity, IntBinaryOperator f) {
+        int[] elements = toArray();
+        int acc = identity;
+        for (int i = elements.length - 1; i >= 0; i--) {
+            acc = f.apply(elements[i], acc);
+        }
+        return acc;
+    }
+
+    /**
+     * 对列表中的每一个元素应用函数
+     * @param f 映射函数
+     * @return 返回映射后的列表
+     */
+    public IntList map(IntFunction f) {
+        int[] elements = toArray();
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = f.apply(elements[i]);
+        }
+        return fromArray(elements, elements.length);
+    }
+
+    /**
+     * 过滤，取出函数结果为true的元素
+     * @param p 过滤函数
+     * @return 返回过滤后的列表
+     */
+    public IntList filter(IntPredicate p) {
+        int[] elements = toArray();
+        int n = 0;
+        for (int element : elements) {
+            if (p.test(element)) {
+                elements[n++] = element;
+            }
+        }
+        return fromArray(elements, n);
+    }
+
+    /**
+     * 求和
+     *
+     * @return 返回所有元素的和
+     */
+    public int sum() {
+        int acc = 0;
+        for (IntList list = this; !list.isEmpty(); list = list.tail()) {
+            acc += list.head();
+        }
+        return acc;
+    }
+
+    /**
+     * 反转列表
+     * @return 返回反转后的列表
+     */
+    public IntList reverse() {
+        IntList acc = list();
+        for (IntList list = this; !list.isEmpty(); list = list.tail()) {
+            acc = acc.cons(list.head());
+        }
+        return acc;
+    }
+
+    /**
+     * 复制到数组
+     *
+     * @return 返回按顺序包含所有元素的数组
+     */
+    public int[] toArray() {
+        int[] elements = new int[size()];
+        int i = 0;
+        for (IntList list = this; !list.isEmpty(); list = list.tail()) {
+            elements[i++] = list.head();
+        }
+        return elements;
+    }
+
+    /**
+     * 转换为装箱的列表
+     *
+     * @return 返回包含相同元素的列表
+     */
+    public List<Integer> toList() {
+        int[] elements = toArray();
+        List<Integer> result = List.list();
+        for (int i = elements.length - 1; i >= 0; i--) {
+            result = result.cons(elements[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (IntList list = this; !list.isEmpty(); list = list.tail()) {
+            sb.append(list.head()).append(", ");
+        }
+        return sb.append("NIL]").toString();
+    }
+
+    private static class Nil extends IntList {
+
+        @Override
+        public int head() {
+            throw new IllegalStateException("head called on empty list");
+        }
+
+        @Override
+        public IntList tail() {
+            throw new IllegalStateException("tail called on empty list");
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+
+    private static class Cons extends IntList {
+
+        private final int head;
+        private final IntList tail;
+        private final int size;
+
+        private Cons(int head, IntList tail) {
+            this.head = head;
+            this.tail = tail;
+            this.size = tail.size() + 1;
+        }
+
+        @Override
+        public int head() {
+            return head;
+        }
+
+        @Override
+        public IntList tail() {
+            return tail;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    public static IntList list() {
+        return NIL;
+    }
+
+    public static IntList list(int... a) {
+        return fromArray(a, a.length);
+    }
+
+    /**
+     * 从装箱的列表转换
+     *
+     * @param list 待转换的列表
+     * @return 返回包含相同元素的列表
+     */
+    public static IntList fromList(List<Integer> list) {
+        return list.foldLeft(list(), l -> a -> l.cons(a)).reverse();
+    }
+
+    private static IntList fromArray(int[] elements, int n) {
+        IntList result = list();
+        for (int i = n - 1; i >= 0; i--) {
+            result = result.cons(elements[i]);
+        }
+        return result;
+    }
+}
@@ -1,11 +1,28 @@
 package com.mfrank.functionprogram.collection;
 
 import com.mfrank.functionprogram.base.Function;
+import com.mfrank.functionprogram.base.Metrics;
+import com.mfrank.functionprogram.base.Monoid;
+import com.mfrank.functionprogram.base.Reducer;
 import com.mfrank.functionprogram.base.TailCall;
+import com.mfrank.functionprogram.base.TailCall.Loop;
+import com.mfrank.functionprogram.base.Transducer;
+import com.mfrank.functionprogram.util.CollectionUtility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+import java.util.stream.StreamSupport;
 
 import static com.mfrank.functionprogram.base.TailCall.*;
 
-public abstract class List<A> {
+public abstract class List<A> implements Iterable<A> {
 
     /**
      * 获取第一个元素
@@ -28,6 +45,13 @@ public abstract class List<A> {
      */
     public abstract boolean isEmpty();
 
+    /**
+     * 元素个数，每个节点都保存了自身开始的长度，因此是 O(1) 的
+     *
+     * @return 返回列表中元素的个数
+     */
+    public abstract int length();
+
     /**
      * 添加一个元素到列表头部
      *
@@ -88,10 +112,10 @@ public abstract class List<A> {
     public abstract <B> B foldLeft(B identity, Function<B, Function<A, B>> f);
 
     /**
-     * 左折叠
+     * 右折叠，通过 TailCall 的续延栈实现，不会反转列表，也不会栈溢出
      * @param identity 初始值
      * @param f 折叠函数
-     * @return 返回左折叠后的结果
+     * @return 返回右折叠后的结果
      */
     public abstract <B> B foldRight(B identity, Function<A, Function<B, B>> f);
 
@@ -113,6 +137,165 @@ public abstract class List<A> {
         return foldRight(list(), h -> t -> f.apply(h) ? new Cons<>(h, t) : t);
     }
 
+    /**
+     * 创建惰性视图，之后的 map/filter/flatMap/takeWhile 会被合并为对列表的一次遍历
+     * @return 返回以当前列表为源的视图
+     */
+    public View<A> view() {
+        return View.of(this);
+    }
+
+    /**
+     * 使用转换器的左折叠，转换器的所有阶段在一次遍历中完成，转换器提前终止时立即停止遍历
+     * @param identity 初始值
+     * @param xf 转换器
+     * @param f 折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public <B, C> B foldLeft(B identity, Transducer<A, C> xf, Function<B, Function<C, B>> f) {
+        return reduce(xf.apply(Reducer.of(f)), identity);
+    }
+
+    /**
+     * 使用转换器生成新的列表
+     * @param xf 转换器
+     * @return 返回转换后的列表
+     */
+    public <B> List<B> transduce(Transducer<A, B> xf) {
+        return fromJavaList(reduce(xf.apply((ArrayList<B> buffer, B b) -> {
+            buffer.add(b);
+            return buffer;
+        }), new ArrayList<>()));
+    }
+
+    private <B> B reduce(Reducer<B, A> reducer, B identity) {
+        B acc = identity;
+        long count = 0;
+        for (List<A> list = this; !list.isEmpty() && !reducer.isDone(); list = list.tail()) {
+            acc = reducer.step(acc, list.head());
+            count++;
+        }
+        Metrics.fold(count);
+        return reducer.complete(acc);
+    }
+
+    /**
+     * 并行左折叠，在 ForkJoinPool.commonPool() 中执行
+     * @param m 用于合并各段结果的幺半群，每段都从它的单位元开始折叠
+     * @param f 折叠函数
+     * @return 返回折叠后的结果
+     */
+    public <B> B parFoldLeft(Monoid<B> m, Function<B, Function<A, B>> f) {
+        return parFoldLeft(ForkJoinPool.commonPool(), m, f);
+    }
+
+    /**
+     * 并行左折叠，把列表切分为若干段，在指定的 ForkJoinPool 中分别折叠，再按原顺序合并
+     * @param pool 执行折叠的线程池
+     * @param m 用于合并各段结果的幺半群，每段都从它的单位元开始折叠
+     * @param f 折叠函数
+     * @return 返回折叠后的结果
+     */
+    public <B> B parFoldLeft(ForkJoinPool pool, Monoid<B> m, Function<B, Function<A, B>> f) {
+        return CollectionUtility.parFoldLeft(pool, toJavaList(), m, f);
+    }
+
+    /**
+     * 并行映射，在 ForkJoinPool.commonPool() 中执行，结果保持原顺序
+     * @param f 映射函数
+     * @return 返回映射后的列表
+     */
+    public <B> List<B> parMap(Function<A, B> f) {
+        return parMap(ForkJoinPool.commonPool(), f);
+    }
+
+    /**
+     * 并行映射，结果保持原顺序
+     * @param pool 执行映射的线程池
+     * @param f 映射函数
+     * @return 返回映射后的列表
+     */
+    public <B> List<B> parMap(ForkJoinPool pool, Function<A, B> f) {
+        return fromJavaList(CollectionUtility.parMap(pool, toJavaList(), f));
+    }
+
+    /**
+     * 并行过滤，在 ForkJoinPool.commonPool() 中执行，结果保持原顺序
+     * @param f 过滤函数
+     * @return 返回过滤后的列表
+     */
+    public List<A> parFilter(Function<A, Boolean> f) {
+        return parFilter(ForkJoinPool.commonPool(), f);
+    }
+
+    /**
+     * 并行过滤，结果保持原顺序
+     * @param pool 执行过滤的线程池
+     * @param f 过滤函数
+     * @return 返回过滤后的列表
+     */
+    public List<A> parFilter(ForkJoinPool pool, Function<A, Boolean> f) {
+        return fromJavaList(CollectionUtility.parFilter(pool, toJavaList(), f));
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private List<A> rest = List.this;
+
+            @Override
+            public boolean hasNext() {
+                return !rest.isEmpty();
+            }
+
+            @Override
+            public A next() {
+                if (rest.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                A a = rest.head();
+                rest = rest.tail();
+                return a;
+            }
+        };
+    }
+
+    /**
+     * 分割时把前一半元素复制到数组中，数组部分可以继续均匀地分割，剩余部分仍然直接引用原列表
+     */
+    @Override
+    public Spliterator<A> spliterator() {
+        return new ListSpliterator<>(this);
+    }
+
+    public java.util.stream.Stream<A> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public java.util.stream.Stream<A> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    private java.util.List<A> toJavaList() {
+        java.util.List<A> result = new ArrayList<>(length());
+        for (A a : this) {
+            result.add(a);
+        }
+        return result;
+    }
+
+    static <A> List<A> fromJavaList(java.util.List<A> as) {
+        return prependAll(as, list());
+    }
+
+    private static <A> List<A> prependAll(java.util.List<A> as, List<A> tail) {
+        List<A> result = tail;
+        for (int i = as.size() - 1; i >= 0; i--) {
+            result = new Cons<>(as.get(i), result);
+        }
+        return result;
+    }
+
     @SuppressWarnings("rawtypes")
     public static final List NIL = new Nil();
 
@@ -139,6 +322,11 @@ public abstract class List<A> {
             return true;
         }
 
+        @Override
+        public int length() {
+            return 0;
+        }
+
         @Override
         public List<A> cons(A a) {
             return new Cons<>(a, this);
@@ -189,10 +377,12 @@ public abstract class List<A> {
 
         private final A head;
         private final List<A> tail;
+        private final int length;
 
         private Cons(A head, List<A> tail) {
             this.head = head;
             this.tail = tail;
+            this.length = tail.length() + 1;
         }
 
         @Override
@@ -210,6 +400,11 @@ public abstract class List<A> {
             return false;
         }
 
+        @Override
+        public int length() {
+            return length;
+        }
+
         @Override
         public List<A> cons(A a) {
             return new Cons<>(a, this);
@@ -255,41 +450,108 @@ public abstract class List<A> {
 
         @Override
         public <B> B foldRight(B identity, Function<A, Function<B, B>> f) {
-            return foldRight_(identity, this, f).eval();
+            return foldRight_(identity, this, f, 0).eval();
+        }
+
+        private <B> TailCall<B> foldRight_(B identity, List<A> list, Function<A, Function<B, B>> f, long depth) {
+            if (list.isEmpty()) {
+                Metrics.fold(depth);
+                return ret(identity);
+            }
+            return sus(() -> foldRight_(identity, list.tail(), f, depth + 1)).map(b -> f.apply(list.head()).apply(b));
+        }
+
+        private <B> TailCall<B> foldLeft_(B identity, List<A> list, Function<B, Function<A, B>> f) {
+            return new Loop<B>() {
+                private B acc = identity;
+                private List<A> rest = list;
+                private long count;
+
+                @Override
+                protected boolean step() {
+                    if (rest.isEmpty()) {
+                        return false;
+                    }
+                    acc = f.apply(acc).apply(rest.head());
+                    rest = rest.tail();
+                    count++;
+                    return true;
+                }
+
+                @Override
+                protected B result() {
+                    Metrics.fold(count);
+                    return acc;
+                }
+            };
+        }
+
+        private TailCall<List<A>> reverse_(List<A> identity, List<A> list) {
+            return new Loop<List<A>>() {
+                private List<A> acc = identity;
+                private List<A> rest = list;
+
+                @Override
+                protected boolean step() {
+                    if (rest.isEmpty()) {
+                        return false;
+                    }
+                    acc = new Cons<>(rest.head(), acc);
+                    rest = rest.tail();
+                    return true;
+                }
+
+                @Override
+                protected List<A> result() {
+                    return acc;
+                }
+            };
         }
 
-        private <B> TailCall<B> foldRight_(B acc, List<A> aList, Function<A, Function<B, B>> f) {
-            return aList.isEmpty()
-                    ? ret(acc)
-                    : sus(() -> foldRight_(f.apply(aList.head()).apply(acc), aList.tail(), f));
-        }
-
-        private <B> TailCall<B> foldLeft_(B acc, List<A> list, Function<B, Function<A, B>> f) {
-            return list.isEmpty()
-                    ? ret(acc)
-                    : sus(() -> foldLeft_(f.apply(acc).apply(list.head()), list.tail(), f));
-        }
+        private TailCall<List<A>> dropWhile_(List<A> list, Function<A, Boolean> f) {
+            return new Loop<List<A>>() {
+                private List<A> rest = list;
 
-        private TailCall<List<A>> reverse_(List<A> acc, List<A> list) {
-            return list.isEmpty()
-                    ? ret(acc)
-                    : sus(() -> reverse_(new Cons<>(list.head(), acc), list.tail()));
-        }
+                @Override
+                protected boolean step() {
+                    if (rest.isEmpty() || !f.apply(rest.head())) {
+                        return false;
+                    }
+                    rest = rest.tail();
+                    return true;
+                }
 
-        private TailCall<List<A>> dropWhile_(List<A> list, Function<A, Boolean> f) {
-            return !list.isEmpty() && f.apply(list.head())
-                    ? sus(() -> dropWhile_(list.tail(), f))
-                    : ret(list);
+                @Override
+                protected List<A> result() {
+                    return rest;
+                }
+            };
         }
 
         private TailCall<List<A>> drop_(List<A> list, int n){
-            return n <= 0 || list.isEmpty()
-                    ? ret(list)
-                    : sus(() -> drop_(list.tail(), n - 1));
+            return new Loop<List<A>>() {
+                private List<A> rest = list;
+                private int remaining = n;
+
+                @Override
+                protected boolean step() {
+                    if (remaining <= 0 || rest.isEmpty()) {
+                        return false;
+                    }
+                    rest = rest.tail();
+                    remaining--;
+                    return true;
+                }
+
+                @Override
+                protected List<A> result() {
+                    return rest;
+                }
+            };
         }
 
         private TailCall<StringBuilder> toString(StringBuilder acc, List<A> list) {
-            return list().isEmpty()
+            return list.isEmpty()
                     ? ret(acc)
                     : sus(() -> toString(acc.append(list.head()).append(", "), list.tail()));
         }
@@ -300,25 +562,191 @@ public abstract class List<A> {
         return NIL;
     }
 
+    /**
+     * 从任意 Iterable 创建列表，只遍历一次
+     *
+     * @param as 元素来源
+     * @return 返回依次包含这些元素的列表
+     */
+    public static <A> List<A> fromIterable(Iterable<? extends A> as) {
+        Builder<A> builder = builder();
+        for (A a : as) {
+            builder.add(a);
+        }
+        return builder.build();
+    }
+
+    public static <A> Builder<A> builder() {
+        return new Builder<>(16);
+    }
+
+    /**
+     * 创建预先分配好容量的构建器，已知元素个数时可以避免数组扩容
+     *
+     * @param expectedSize 预计的元素个数
+     * @return 返回空的构建器
+     */
+    public static <A> Builder<A> builder(int expectedSize) {
+        return new Builder<>(Math.max(expectedSize, 1));
+    }
+
+    /**
+     * 把 java.util.stream 的元素收集为列表，并行流的各段先分别收集，再按顺序合并
+     */
+    public static <A> Collector<A, ?, List<A>> collector() {
+        return Collector.<A, Builder<A>, List<A>>of(List::builder, Builder::add, Builder::addAll, Builder::build);
+    }
+
+    /**
+     * 可变的列表构建器，按从前到后的顺序添加元素，元素先保存在数组中，
+     * build 时从后向前一次性创建节点，不需要再反转列表。build 之后还可以继续添加，已经构建的列表不受影响
+     */
+    public static final class Builder<A> {
+
+        private Object[] elements;
+        private int size;
+
+        private Builder(int capacity) {
+            this.elements = new Object[capacity];
+        }
+
+        public Builder<A> add(A a) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = a;
+            return this;
+        }
+
+        public Builder<A> addAll(Builder<A> other) {
+            if (size + other.size > elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.elements, 0, elements, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+        @SuppressWarnings("unchecked")
+        public List<A> build() {
+            List<A> result = list();
+            for (int i = size - 1; i >= 0; i--) {
+                result = new Cons<>((A) elements[i], result);
+            }
+            return result;
+        }
+    }
+
+    private static final class ListSpliterator<A> implements Spliterator<A> {
+
+        private static final int MIN_SPLIT = 16;
+        private static final int MAX_BATCH = 1 << 25;
+
+        private List<A> rest;
+
+        private ListSpliterator(List<A> list) {
+            this.rest = list;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            if (rest.isEmpty()) {
+                return false;
+            }
+            action.accept(rest.head());
+            rest = rest.tail();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super A> action) {
+            List<A> list = rest;
+            rest = List.list();
+            for (; !list.isEmpty(); list = list.tail()) {
+                action.accept(list.head());
+            }
+        }
+
+        @Override
+        public Spliterator<A> trySplit() {
+            int length = rest.length();
+            if (length < MIN_SPLIT) {
+                return null;
+            }
+            int n = Math.min(length >>> 1, MAX_BATCH);
+            Object[] prefix = new Object[n];
+            List<A> list = rest;
+            for (int i = 0; i < n; i++) {
+                prefix[i] = list.head();
+                list = list.tail();
+            }
+            rest = list;
+            return Spliterators.spliterator(prefix, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+        }
+
+        @Override
+        public long estimateSize() {
+            return rest.length();
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
     @SafeVarargs
     public static <A> List<A> list(A... a) {
         List<A> n = list();
-        for (int i = a.length; i >= 0; i--) {
+        for (int i = a.length - 1; i >= 0; i--) {
             n = new Cons<>(a[i], n);
         }
         return n;
     }
 
+    /**
+     * 对任意 Iterable 做左折叠，可以直接折叠 CollectionUtility 的 range/iterate/unfold 等惰性生成器，
+     * 不需要先构造列表
+     * @param as 元素来源
+     * @param identity 初始值
+     * @param f 折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public static <A, B> B foldLeft(Iterable<A> as, B identity, Function<B, Function<A, B>> f){
+        return CollectionUtility.fold(as, identity, f);
+    }
+
     public static <A, B> B foldRight(List<A> list, B n, Function<A, Function<B, B>> f){
-        return list.reverse().foldLeft(n, x -> y -> f.apply(y).apply(x));
+        return list.foldRight(n, f);
     }
 
+    /**
+     * 连接两个列表，只复制 list1 一次，list2 被直接共享
+     */
     public static <A> List<A> concat(List<A> list1, List<A> list2){
-        return list1.reverse().foldLeft(list2, x -> x::cons);
+        return list1.isEmpty()
+                ? list2
+                : list2.isEmpty()
+                ? list1
+                : prependAll(list1.toJavaList(), list2);
     }
 
+    /**
+     * 展开列表的列表，每个元素只复制一次，最后一块直接共享，总代价与元素个数成线性关系。
+     * 需要逐步拼接大量小块时，可以先用 CatList 以 O(1) 的代价连接，最后再转换为 List
+     */
     public static <A> List<A> flatten(List<List<A>> list){
-        return foldRight(list, List.<A>list(), x -> y -> concat(x, y));
+        if (list.isEmpty()) {
+            return list();
+        }
+        ArrayList<A> buffer = new ArrayList<>();
+        List<List<A>> rest = list;
+        for (; !rest.tail().isEmpty(); rest = rest.tail()) {
+            for (List<A> chunk = rest.head(); !chunk.isEmpty(); chunk = chunk.tail()) {
+                buffer.add(chunk.head());
+            }
+        }
+        return prependAll(buffer, rest.head());
     }
 
 }
@@ -0,0 +1,257 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.LongBinaryOperator;
+import com.mfrank.functionprogram.base.LongFunction;
+import com.mfrank.functionprogram.base.LongPredicate;
+
+/**
+ * 元素为 long 的持久化单链表，元素直接保存在节点的 long 字段中，
+ * 折叠、映射和过滤的过程中不会产生装箱对象
+ */
+public abstract class LongList {
+
+    private static final LongList NIL = new Nil();
+
+    /**
+     * 获取第一个元素
+     *
+     * @return 返回第一个元素
+     */
+    public abstract long head();
+
+    /**
+     * 获取除第一个元素之外的其它元素组成的列表
+     *
+     * @return 返回移除第一个元素后的列表
+     */
+    public abstract LongList tail();
+
+    /**
+     * 列表是否为空
+     *
+     * @return 如果列表为空，则返回true，否则返回false
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * 元素个数，节点中保存了长度，因此是 O(1) 的
+     *
+     * @return 返回列表中元素的个数
+     */
+    public abstract int size();
+
+    private LongList() {
+    }
+
+    /**
+     * 添加一个元素到列表头部
+     *
+     * @param a 待添加的元素
+     * @return 返回添加元素后的列表
+     */
+    public LongList cons(long a) {
+        return new Cons(a, this);
+    }
+
+    /**
+     * 左折叠
+     * @param identity 初始值
+     * @param f 折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public long foldLeft(long identity, LongBinaryOperator f) {
+        long acc = identity;
+        for (LongList list = this; !list.isEmpty(); list = list.tail()) {
+            acc = f.apply(acc, list.head());
+        }
+        return acc;
+    }
+
+    /**
+     * 右折叠，先把元素复制到 long 数组中再从后向前折叠，不反转列表
+     * @param identity 初始值
+     * @param f 折叠函数
+     * @return 返回右折叠后的结果
+     */
+    public long foldRight(long identity, LongBinaryOperator f) {
+        long[] elements = toArray();
+        long acc = identity;
+        for (int i = elements.length - 1; i >= 0; i--) {
+            acc = f.apply(elements[i], acc);
+        }
+        return acc;
+    }
+
+    /**
+     * 对列表中的每一个元素应用函数
+     * @param f 映射函数
+     * @return 返回映射后的列表
+     */
+    public LongList map(LongFunction f) {
+        long[] elements = toArray();
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = f.apply(elements[i]);
+        }
+        return fromArray(elements, elements.length);
+    }
+
+    /**
+     * 过滤，取出函数结果为true的元素
+     * @param p 过滤函数
+     * @return 返回过滤后的列表
+     */
+    public LongList filter(LongPredicate p) {
+        long[] elements = toArray();
+        int n = 0;
+        for (long element : elements) {
+            if (p.test(element)) {
+                elements[n++] = element;
+            }
+        }
+        return fromArray(elements, n);
+    }
+
+    /**
+     * 求和
+     *
+     * @return 返回所有元素的和
+     */
+    public long sum() {
+        long acc = 0;
+        for (LongList list = this; !list.isEmpty(); list = list.tail()) {
+            acc += list.head();
+        }
+        return acc;
+    }
+
+    /**
+     * 反转列表
+     * @return 返回反转后的列表
+     */
+    public LongList reverse() {
+        LongList acc = list();
+        for (LongList list = this; !list.isEmpty(); list = list.tail()) {
+            acc = acc.cons(list.head());
+        }
+        return acc;
+    }
+
+    /**
+     * 复制到数组
+     *
+     * @return 返回按顺序包含所有元素的数组
+     */
+    public long[] toArray() {
+        long[] elements = new long[size()];
+        int i = 0;
+        for (LongList list = this; !list.isEmpty(); list = list.tail()) {
+            elements[i++] = list.head();
+        }
+        return elements;
+    }
+
+    /**
+     * 转换为装箱的列表
+     *
+     * @return 返回包含相同元素的列表
+     */
+    public List<Long> toList() {
+        long[] elements = toArray();
+        List<Long> result = List.list();
+        for (int i = elements.length - 1; i >= 0; i--) {
+            result = result.cons(elements[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (LongList list = this; !list.isEmpty(); list = list.tail()) {
+            sb.append(list.head()).append(", ");
+        }
+        return sb.append("NIL]").toString();
+    }
+
+    private static class Nil extends LongList {
+
+        @Override
+        public long head() {
+            throw new IllegalStateException("head called on empty list");
+        }
+
+        @Override
+        public LongList tail() {
+            throw new IllegalStateException("tail called on empty list");
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    }
+
+    private static class Cons extends LongList {
+
+        private final long head;
+        private final LongList tail;
+        private final int size;
+
+        private Cons(long head, LongList tail) {
+            this.head = head;
+            this.tail = tail;
+            this.size = tail.size() + 1;
+        }
+
+        @Override
+        public long head() {
+            return head;
+        }
+
+        @Override
+        public LongList tail() {
+            return tail;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    public static LongList list() {
+        return NIL;
+    }
+
+    public static LongList list(long... a) {
+        return fromArray(a, a.length);
+    }
+
+    /**
+     * 从装箱的列表转换
+     *
+     * @param list 待转换的列表
+     * @return 返回包含相同元素的列表
+     */
+    public static LongList fromList(List<Long> list) {
+        return list.foldLeft(list(), l -> a -> l.cons(a)).reverse();
+    }
+
+    private static LongList fromArray(long[] elements, int n) {
+        LongList result = list();
+        for (int i = n - 1; i >= 0; i--) {
+            result = result.cons(elements[i]);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,594 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Function;
+import com.mfrank.functionprogram.base.Result;
+import com.mfrank.functionprogram.base.Tuple;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * 持久化哈希映射，哈希数组映射前缀树（hash array mapped trie）。
+ * <p>
+ * 每层用键的哈希值的 5 个比特选择分支，节点只为存在的分支分配空间，用 32 位的位图记录存在哪些分支，
+ * 树高不超过 7，因此 get/put/remove 实际上是 O(1) 的。键值对直接保存在节点的数组中，
+ * 哈希值完全相同的键保存在冲突节点中。修改只复制从根到目标节点的路径，其余节点与旧版本共享。
+ * <p>
+ * Builder 是临时（transient）版本：节点记录创建它的 builder，同一个 builder 再次修改这些节点时原地更新，
+ * 批量构建时不会反复复制路径。build 之后 builder 换一个新的标记，已经发布的节点不会再被修改。键不能为 null。
+ */
+public final class Map<K, V> implements Iterable<Tuple<K, V>> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    // 32 位哈希最多 7 层位图节点，再加一层冲突节点
+    private static final int MAX_DEPTH = 8;
+
+    private static final Object NOT_FOUND = new Object();
+
+    @SuppressWarnings("rawtypes")
+    private static final Map EMPTY = new Map<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private Map(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> Map<K, V> empty() {
+        return EMPTY;
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return new Builder<>(BitmapNode.EMPTY, 0);
+    }
+
+    /**
+     * 从键值对创建映射，键重复时保留最后一个值
+     *
+     * @param entries 键值对
+     * @return 返回包含这些键值对的映射
+     */
+    public static <K, V> Map<K, V> fromIterable(Iterable<Tuple<K, V>> entries) {
+        Builder<K, V> builder = builder();
+        for (Tuple<K, V> entry : entries) {
+            builder.put(entry._1, entry._2);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 键值对的个数
+     *
+     * @return 返回映射中键值对的个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 查找键对应的值
+     *
+     * @param key 键
+     * @return 存在时返回 Success，否则返回 Empty
+     */
+    @SuppressWarnings("unchecked")
+    public Result<V> get(K key) {
+        Object value = root.find(hash(key), 0, key);
+        return value == NOT_FOUND ? Result.empty() : Result.success((V) value);
+    }
+
+    /**
+     * 查找键对应的值，不存在时返回默认值，查找过程不创建任何对象
+     *
+     * @param key          键
+     * @param defaultValue 默认值
+     * @return 返回键对应的值或者默认值
+     */
+    @SuppressWarnings("unchecked")
+    public V getOrElse(K key, V defaultValue) {
+        Object value = root.find(hash(key), 0, key);
+        return value == NOT_FOUND ? defaultValue : (V) value;
+    }
+
+    public boolean containsKey(K key) {
+        return root.find(hash(key), 0, key) != NOT_FOUND;
+    }
+
+    /**
+     * 添加或者替换一个键值对
+     *
+     * @param key   键
+     * @param value 值
+     * @return 返回新的映射，值没有变化时返回当前映射
+     */
+    public Map<K, V> put(K key, V value) {
+        Change change = new Change();
+        Node newRoot = root.put(null, hash(key), 0, key, value, change);
+        return newRoot == root ? this : new Map<>(newRoot, size + change.delta);
+    }
+
+    /**
+     * 删除一个键
+     *
+     * @param key 键
+     * @return 返回新的映射，键不存在时返回当前映射
+     */
+    public Map<K, V> remove(K key) {
+        Change change = new Change();
+        Node newRoot = root.remove(null, hash(key), 0, key, change);
+        return newRoot == root ? this : newRoot == null ? empty() : new Map<>(newRoot, size + change.delta);
+    }
+
+    /**
+     * 所有的键组成的集合，与当前映射共享节点，不复制
+     *
+     * @return 返回键的集合
+     */
+    @SuppressWarnings("unchecked")
+    public Set<K> keys() {
+        return new Set<>((Map<K, Object>) this);
+    }
+
+    /**
+     * 左折叠，键值对的顺序由哈希值决定
+     *
+     * @param identity 初始值
+     * @param f        折叠函数
+     * @return 返回左折叠后的结果
+     */
+    @SuppressWarnings("unchecked")
+    public <B> B foldLeft(B identity, Function<B, Function<Tuple<K, V>, B>> f) {
+        return (B) root.fold(identity, (acc, k, v) -> f.apply((B) acc).apply(new Tuple<>((K) k, (V) v)));
+    }
+
+    /**
+     * 从当前映射开始的 builder，批量修改时只在第一次经过某个节点时复制它
+     *
+     * @return 返回包含当前所有键值对的 builder
+     */
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(root, size);
+    }
+
+    public List<Tuple<K, V>> toList() {
+        List.Builder<Tuple<K, V>> builder = List.builder(size);
+        for (Tuple<K, V> entry : this) {
+            builder.add(entry);
+        }
+        return builder.build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Iterator<Tuple<K, V>> iterator() {
+        Cursor cursor = new Cursor(root);
+        return new Iterator<Tuple<K, V>>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public Tuple<K, V> next() {
+                cursor.next();
+                return new Tuple<>((K) cursor.key, (V) cursor.value);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    <B> B foldKeys(B identity, Function<B, Function<K, B>> f) {
+        return (B) root.fold(identity, (acc, k, v) -> f.apply((B) acc).apply((K) k));
+    }
+
+    @SuppressWarnings("unchecked")
+    Iterator<K> keyIterator() {
+        Cursor cursor = new Cursor(root);
+        return new Iterator<K>() {
+            @Override
+            public boolean hasNext() {
+                return cursor.hasNext();
+            }
+
+            @Override
+            public K next() {
+                cursor.next();
+                return (K) cursor.key;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Map)) return false;
+        Map<?, ?> other = (Map<?, ?>) o;
+        if (size != other.size) return false;
+        Cursor cursor = new Cursor(root);
+        while (cursor.hasNext()) {
+            cursor.next();
+            if (!Objects.equals(cursor.value, other.root.find(hash(cursor.key), 0, cursor.key))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return (Integer) root.fold(0, (acc, k, v) -> (Integer) acc + (k.hashCode() ^ Objects.hashCode(v)));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        Cursor cursor = new Cursor(root);
+        while (cursor.hasNext()) {
+            cursor.next();
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(cursor.key).append('=').append(cursor.value);
+        }
+        return sb.append('}').toString();
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    /**
+     * 可变的映射构建器，修改时原地更新自己创建的节点，build 返回不可变的映射，之后还可以继续修改
+     */
+    public static final class Builder<K, V> {
+
+        // 标记由当前 builder 创建、可以原地修改的节点
+        private Object owner = new Object();
+        private Node root;
+        private int size;
+        private final Change change = new Change();
+
+        private Builder(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+
+        public Builder<K, V> put(K key, V value) {
+            change.delta = 0;
+            root = root.put(owner, hash(key), 0, key, value, change);
+            size += change.delta;
+            return this;
+        }
+
+        public Builder<K, V> remove(K key) {
+            change.delta = 0;
+            Node newRoot = root.remove(owner, hash(key), 0, key, change);
+            root = newRoot == null ? BitmapNode.EMPTY : newRoot;
+            size += change.delta;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public Map<K, V> build() {
+            owner = new Object();
+            return size == 0 ? empty() : new Map<>(root, size);
+        }
+    }
+
+    // 键值对个数的变化
+    private static final class Change {
+        private int delta;
+    }
+
+    private interface Visitor {
+        Object visit(Object acc, Object key, Object value);
+    }
+
+    private abstract static class Node {
+
+        // 两种节点的数组格式相同：每个分支两个槽位，键和值，或者 null 和子节点
+        Object[] array;
+
+        abstract Object find(int hash, int shift, Object key);
+
+        abstract Node put(Object owner, int hash, int shift, Object key, Object value, Change change);
+
+        /**
+         * @return 返回删除后的节点，节点变为空时返回 null
+         */
+        abstract Node remove(Object owner, int hash, int shift, Object key, Change change);
+
+        // 递归深度不超过 MAX_DEPTH
+        Object fold(Object acc, Visitor visitor) {
+            for (int i = 0; i < array.length; i += 2) {
+                acc = array[i] == null
+                        ? ((Node) array[i + 1]).fold(acc, visitor)
+                        : visitor.visit(acc, array[i], array[i + 1]);
+            }
+            return acc;
+        }
+    }
+
+    private static final class BitmapNode extends Node {
+
+        private static final BitmapNode EMPTY = new BitmapNode(null, 0, new Object[0]);
+
+        private final Object owner;
+        private int bitmap;
+
+        private BitmapNode(Object owner, int bitmap, Object[] array) {
+            this.owner = owner;
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1)) << 1;
+        }
+
+        @Override
+        Object find(int hash, int shift, Object key) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return NOT_FOUND;
+            }
+            int i = index(bit);
+            Object k = array[i];
+            if (k == null) {
+                return ((Node) array[i + 1]).find(hash, shift + BITS, key);
+            }
+            return key.equals(k) ? array[i + 1] : NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object owner, int hash, int shift, Object key, Object value, Change change) {
+            int bit = bit(hash, shift);
+            int i = index(bit);
+            if ((bitmap & bit) != 0) {
+                Object k = array[i];
+                Object v = array[i + 1];
+                if (k == null) {
+                    Node node = (Node) v;
+                    Node updated = node.put(owner, hash, shift + BITS, key, value, change);
+                    return updated == node ? this : set(owner, i, null, updated);
+                }
+                if (key.equals(k)) {
+                    return v == value ? this : set(owner, i, k, value);
+                }
+                change.delta = 1;
+                return set(owner, i, null, createNode(owner, shift + BITS, k, v, hash, key, value));
+            }
+            change.delta = 1;
+            Object[] newArray = new Object[array.length + 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            newArray[i] = key;
+            newArray[i + 1] = value;
+            System.arraycopy(array, i, newArray, i + 2, array.length - i);
+            if (isOwnedBy(owner)) {
+                bitmap |= bit;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(owner, bitmap | bit, newArray);
+        }
+
+        @Override
+        Node remove(Object owner, int hash, int shift, Object key, Change change) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = index(bit);
+            Object k = array[i];
+            if (k == null) {
+                Node node = (Node) array[i + 1];
+                Node updated = node.remove(owner, hash, shift + BITS, key, change);
+                if (updated == node) {
+                    return this;
+                }
+                if (updated != null) {
+                    return set(owner, i, null, updated);
+                }
+            } else if (key.equals(k)) {
+                change.delta = -1;
+            } else {
+                return this;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            if (isOwnedBy(owner)) {
+                bitmap ^= bit;
+                array = newArray;
+                return this;
+            }
+            return new BitmapNode(owner, bitmap ^ bit, newArray);
+        }
+
+        private boolean isOwnedBy(Object owner) {
+            return owner != null && owner == this.owner;
+        }
+
+        private BitmapNode set(Object owner, int i, Object k, Object v) {
+            if (isOwnedBy(owner)) {
+                array[i] = k;
+                array[i + 1] = v;
+                return this;
+            }
+            Object[] newArray = array.clone();
+            newArray[i] = k;
+            newArray[i + 1] = v;
+            return new BitmapNode(owner, bitmap, newArray);
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+
+        private final Object owner;
+        private final int hash;
+
+        private CollisionNode(Object owner, int hash, Object[] array) {
+            this.owner = owner;
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(int hash, int shift, Object key) {
+            if (hash != this.hash) {
+                return NOT_FOUND;
+            }
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : array[i + 1];
+        }
+
+        @Override
+        Node put(Object owner, int hash, int shift, Object key, Object value, Change change) {
+            if (hash != this.hash) {
+                // 哈希值不同的键需要在这一层分开，把冲突节点放到一个新的位图节点下面
+                return new BitmapNode(owner, bit(this.hash, shift), new Object[]{null, this})
+                        .put(owner, hash, shift, key, value, change);
+            }
+            int i = indexOf(key);
+            Object[] newArray;
+            if (i >= 0) {
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                newArray = isOwnedBy(owner) ? array : array.clone();
+                newArray[i + 1] = value;
+            } else {
+                change.delta = 1;
+                newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, array.length);
+                newArray[array.length] = key;
+                newArray[array.length + 1] = value;
+            }
+            if (isOwnedBy(owner)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(owner, hash, newArray);
+        }
+
+        @Override
+        Node remove(Object owner, int hash, int shift, Object key, Change change) {
+            int i = hash == this.hash ? indexOf(key) : -1;
+            if (i < 0) {
+                return this;
+            }
+            change.delta = -1;
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+            if (isOwnedBy(owner)) {
+                array = newArray;
+                return this;
+            }
+            return new CollisionNode(owner, hash, newArray);
+        }
+
+        private boolean isOwnedBy(Object owner) {
+            return owner != null && owner == this.owner;
+        }
+    }
+
+    private static Node createNode(Object owner, int shift, Object k1, Object v1, int h2, Object k2, Object v2) {
+        int h1 = hash(k1);
+        if (h1 == h2) {
+            return new CollisionNode(owner, h1, new Object[]{k1, v1, k2, v2});
+        }
+        return pair(owner, shift, h1, k1, v1, h2, k2, v2);
+    }
+
+    // 两个哈希值不同的键在某一层一定会分开，最深到 shift = 30
+    private static Node pair(Object owner, int shift, int h1, Object k1, Object v1, int h2, Object k2, Object v2) {
+        int f1 = (h1 >>> shift) & MASK;
+        int f2 = (h2 >>> shift) & MASK;
+        if (f1 == f2) {
+            return new BitmapNode(owner, 1 << f1, new Object[]{null, pair(owner, shift + BITS, h1, k1, v1, h2, k2, v2)});
+        }
+        Object[] array = f1 < f2 ? new Object[]{k1, v1, k2, v2} : new Object[]{k2, v2, k1, v1};
+        return new BitmapNode(owner, (1 << f1) | (1 << f2), array);
+    }
+
+    // 深度优先遍历所有键值对，用显式的栈代替递归
+    private static final class Cursor {
+
+        private final Object[][] arrays = new Object[MAX_DEPTH][];
+        private final int[] indices = new int[MAX_DEPTH];
+        private int depth;
+        private boolean ready;
+        private Object key;
+        private Object value;
+
+        private Cursor(Node root) {
+            arrays[0] = root.array;
+        }
+
+        private boolean hasNext() {
+            if (ready) {
+                return true;
+            }
+            while (depth >= 0) {
+                Object[] array = arrays[depth];
+                int i = indices[depth];
+                if (i >= array.length) {
+                    depth--;
+                    continue;
+                }
+                indices[depth] = i + 2;
+                if (array[i] == null) {
+                    depth++;
+                    arrays[depth] = ((Node) array[i + 1]).array;
+                    indices[depth] = 0;
+                    continue;
+                }
+                key = array[i];
+                value = array[i + 1];
+                ready = true;
+                return true;
+            }
+            return false;
+        }
+
+        private void next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ready = false;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Function;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 持久化先进先出队列，实时队列（real-time queue）。
+ * <p>
+ * 元素从尾部的 rear 列表入队，从头部的惰性前端出队。rear 比前端长时不是一次性反转，
+ * 而是构造一个惰性的旋转 front ++ reverse(rear)，之后每次 enqueue/dequeue 都通过 schedule 向前求值一个节点，
+ * 旋转在前端被读到之前已经完成。因此 enqueue/dequeue/peek 在最坏情况下都是 O(1) 的，
+ * 对同一个版本反复出队也不会触发整体的反转。
+ */
+public final class Queue<A> implements Iterable<A> {
+
+    @SuppressWarnings("rawtypes")
+    private static final Queue EMPTY = new Queue<>(null, List.list(), null, 0);
+
+    // 惰性的前端，null 表示空
+    private final Cell<A> front;
+    // 逆序保存的尾部
+    private final List<A> rear;
+    // 前端中尚未求值的部分，长度为 |front| - |rear|
+    private final Cell<A> schedule;
+    private final int size;
+
+    private Queue(Cell<A> front, List<A> rear, Cell<A> schedule, int size) {
+        this.front = front;
+        this.rear = rear;
+        this.schedule = schedule;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A> Queue<A> empty() {
+        return EMPTY;
+    }
+
+    @SafeVarargs
+    public static <A> Queue<A> of(A... as) {
+        Queue<A> result = empty();
+        for (A a : as) {
+            result = result.enqueue(a);
+        }
+        return result;
+    }
+
+    public static <A> Queue<A> fromIterable(Iterable<? extends A> as) {
+        Queue<A> result = empty();
+        for (A a : as) {
+            result = result.enqueue(a);
+        }
+        return result;
+    }
+
+    /**
+     * 元素个数
+     *
+     * @return 返回队列中元素的个数
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 在尾部添加一个元素
+     *
+     * @param a 待添加的元素
+     * @return 返回添加元素后的队列
+     */
+    public Queue<A> enqueue(A a) {
+        return exec(front, rear.cons(a), schedule, size + 1);
+    }
+
+    /**
+     * 获取队首的元素
+     *
+     * @return 返回最早入队的元素
+     */
+    public A peek() {
+        if (front == null) {
+            throw new IllegalStateException("peek called on empty queue");
+        }
+        return front.head;
+    }
+
+    /**
+     * 删除队首的元素
+     *
+     * @return 返回删除队首元素后的队列
+     */
+    public Queue<A> dequeue() {
+        if (front == null) {
+            throw new IllegalStateException("dequeue called on empty queue");
+        }
+        return size == 1 ? empty() : exec(front.next(), rear, schedule, size - 1);
+    }
+
+    /**
+     * 按出队的顺序左折叠
+     *
+     * @param identity 初始值
+     * @param f        折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        B acc = identity;
+        for (A a : this) {
+            acc = f.apply(acc).apply(a);
+        }
+        return acc;
+    }
+
+    public List<A> toList() {
+        return List.fromIterable(this);
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return new Iterator<A>() {
+            private Queue<A> rest = Queue.this;
+
+            @Override
+            public boolean hasNext() {
+                return !rest.isEmpty();
+            }
+
+            @Override
+            public A next() {
+                if (rest.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                A a = rest.peek();
+                rest = rest.dequeue();
+                return a;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return foldLeft(new StringBuilder("["), sb -> a -> sb.length() == 1 ? sb.append(a) : sb.append(", ").append(a))
+                .append("]").toString();
+    }
+
+    // schedule 不为空时向前求值一个节点，否则 |rear| = |front| + 1，开始新的旋转
+    private static <A> Queue<A> exec(Cell<A> front, List<A> rear, Cell<A> schedule, int size) {
+        if (schedule != null) {
+            return new Queue<>(front, rear, schedule.next(), size);
+        }
+        Cell<A> rotated = rotate(front, rear, null);
+        return new Queue<>(rotated, List.list(), rotated, size);
+    }
+
+    // front ++ reverse(rear) ++ acc，要求 |rear| = |front| + 1，每一步只构造一个节点
+    private static <A> Cell<A> rotate(Cell<A> front, List<A> rear, Cell<A> acc) {
+        if (front == null) {
+            return new Cell<>(rear.head(), acc);
+        }
+        return new Cell<>(front.head, new Rotation<>(front, rear, acc));
+    }
+
+    private static final class Rotation<A> {
+
+        private final Cell<A> front;
+        private final List<A> rear;
+        private final Cell<A> acc;
+
+        private Rotation(Cell<A> front, List<A> rear, Cell<A> acc) {
+            this.front = front;
+            this.rear = rear;
+            this.acc = acc;
+        }
+
+        private Cell<A> step() {
+            return rotate(front.next(), rear.tail(), new Cell<>(rear.head(), acc));
+        }
+    }
+
+    /**
+     * 惰性链表的节点，头元素总是已知的，下一个节点可能还是一个未完成的旋转。
+     * 求值后丢弃旋转的参数，不会一直引用旧的 rear；并发求值时最多重复计算一步，结果相同
+     */
+    private static final class Cell<A> {
+
+        private final A head;
+        private volatile Cell<A> next;
+        private volatile Rotation<A> rotation;
+
+        private Cell(A head, Cell<A> next) {
+            this.head = head;
+            this.next = next;
+        }
+
+        private Cell(A head, Rotation<A> rotation) {
+            this.head = head;
+            this.rotation = rotation;
+        }
+
+        private Cell<A> next() {
+            Rotation<A> pending = rotation;
+            if (pending != null) {
+                next = pending.step();
+                rotation = null;
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Function;
+
+import java.util.Iterator;
+
+/**
+ * 持久化哈希集合，元素作为 Map 的键保存，与 Map 一样共享结构，contains/add/remove 实际上是 O(1) 的。
+ * 元素不能为 null。
+ */
+public final class Set<A> implements Iterable<A> {
+
+    private static final Object PRESENT = Boolean.TRUE;
+
+    @SuppressWarnings("rawtypes")
+    private static final Set EMPTY = new Set<>(Map.empty());
+
+    private final Map<A, Object> map;
+
+    Set(Map<A, Object> map) {
+        this.map = map;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A> Set<A> empty() {
+        return EMPTY;
+    }
+
+    @SafeVarargs
+    public static <A> Set<A> of(A... as) {
+        Builder<A> builder = builder();
+        for (A a : as) {
+            builder.add(a);
+        }
+        return builder.build();
+    }
+
+    public static <A> Set<A> fromIterable(Iterable<? extends A> as) {
+        Builder<A> builder = builder();
+        for (A a : as) {
+            builder.add(a);
+        }
+        return builder.build();
+    }
+
+    public static <A> Builder<A> builder() {
+        return new Builder<>(Map.builder());
+    }
+
+    /**
+     * 元素个数
+     *
+     * @return 返回集合中元素的个数
+     */
+    public int size() {
+        return map.size();
+    }
+
+    public boolean isEmpty() {
+        return map.isEmpty();
+    }
+
+    public boolean contains(A a) {
+        return map.containsKey(a);
+    }
+
+    /**
+     * 添加一个元素
+     *
+     * @param a 待添加的元素
+     * @return 返回新的集合，元素已经存在时返回当前集合
+     */
+    public Set<A> add(A a) {
+        Map<A, Object> result = map.put(a, PRESENT);
+        return result == map ? this : new Set<>(result);
+    }
+
+    /**
+     * 删除一个元素
+     *
+     * @param a 待删除的元素
+     * @return 返回新的集合，元素不存在时返回当前集合
+     */
+    public Set<A> remove(A a) {
+        Map<A, Object> result = map.remove(a);
+        return result == map ? this : new Set<>(result);
+    }
+
+    /**
+     * 并集，在较大的集合上批量添加较小集合的元素
+     *
+     * @param other 另一个集合
+     * @return 返回两个集合的并集
+     */
+    public Set<A> union(Set<A> other) {
+        Set<A> larger = size() >= other.size() ? this : other;
+        Set<A> smaller = larger == this ? other : this;
+        if (smaller.isEmpty()) {
+            return larger;
+        }
+        Builder<A> builder = new Builder<>(larger.map.toBuilder());
+        for (A a : smaller) {
+            builder.add(a);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 左折叠，元素的顺序由哈希值决定
+     *
+     * @param identity 初始值
+     * @param f        折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        return map.foldKeys(identity, f);
+    }
+
+    public Builder<A> toBuilder() {
+        return new Builder<>(map.toBuilder());
+    }
+
+    public List<A> toList() {
+        return List.fromIterable(this);
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return map.keyIterator();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Set)) return false;
+        // keys() 得到的集合中值不一定是 PRESENT，只比较键
+        @SuppressWarnings("unchecked")
+        Set<Object> other = (Set<Object>) o;
+        if (size() != other.size()) return false;
+        for (A a : this) {
+            if (!other.contains(a)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return map.foldKeys(0, h -> a -> h + a.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return foldLeft(new StringBuilder("{"), sb -> a -> sb.length() == 1 ? sb.append(a) : sb.append(", ").append(a))
+                .append("}").toString();
+    }
+
+    /**
+     * 可变的集合构建器，与 Map.Builder 相同，build 之后还可以继续修改
+     */
+    public static final class Builder<A> {
+
+        private final Map.Builder<A, Object> map;
+
+        private Builder(Map.Builder<A, Object> map) {
+            this.map = map;
+        }
+
+        public Builder<A> add(A a) {
+            map.put(a, PRESENT);
+            return this;
+        }
+
+        public Builder<A> remove(A a) {
+            map.remove(a);
+            return this;
+        }
+
+        public Set<A> build() {
+            return new Set<>(map.build());
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Function;
+import com.mfrank.functionprogram.base.Result;
+import com.mfrank.functionprogram.base.Supplier;
+import com.mfrank.functionprogram.base.TailCall;
+import com.mfrank.functionprogram.base.TailCall.Loop;
+
+import static com.mfrank.functionprogram.base.TailCall.ret;
+import static com.mfrank.functionprogram.base.TailCall.sus;
+
+/**
+ * 惰性流，头元素和尾部都用 Supplier 延迟计算，并且只计算一次。
+ * <p>
+ * map/filter/take 等操作只是构造新的流，只有访问元素时才会求值，
+ * 因此可以表示无限序列，也可以在找到需要的元素后立即停止。
+ * 需要遍历一段前缀的操作（drop、dropWhile、exists、foldLeft 等）使用 TailCall 实现，不会栈溢出。
+ */
+public abstract class Stream<A> {
+
+    @SuppressWarnings("rawtypes")
+    private static final Stream EMPTY = new Empty();
+
+    // 失败结果不包含值，可以在所有类型之间共享
+    @SuppressWarnings("rawtypes")
+    private static final Result NOT_FOUND = Result.failure("no element found");
+
+    /**
+     * 获取第一个元素
+     *
+     * @return 返回第一个元素
+     */
+    public abstract A head();
+
+    /**
+     * 获取除第一个元素之外的其它元素组成的流
+     *
+     * @return 返回移除第一个元素后的流
+     */
+    public abstract Stream<A> tail();
+
+    /**
+     * 流是否为空
+     *
+     * @return 如果流为空，则返回true，否则返回false
+     */
+    public abstract boolean isEmpty();
+
+    /**
+     * 取前n个元素，惰性求值
+     *
+     * @param n 需要保留的元素个数
+     * @return 返回最多包含n个元素的流
+     */
+    public abstract Stream<A> take(int n);
+
+    /**
+     * 只要条件为真，就保留流的元素，惰性求值
+     *
+     * @param p 用于判断的函数
+     * @return 返回由满足条件的前缀组成的流
+     */
+    public abstract Stream<A> takeWhile(Function<A, Boolean> p);
+
+    /**
+     * 惰性右折叠，f 的第二个参数是剩余部分折叠结果的 Supplier，
+     * f 不需要剩余结果时可以不调用它，折叠会立即停止。
+     * 如果需要折叠整个很长的流，应使用 foldLeft
+     *
+     * @param identity 初始值
+     * @param f        折叠函数
+     * @return 返回右折叠后的结果
+     */
+    public abstract <B> B foldRight(Supplier<B> identity, Function<A, Function<Supplier<B>, B>> f);
+
+    private Stream() {
+    }
+
+    /**
+     * 删除前n个元素
+     *
+     * @param n 需要删除的元素个数
+     * @return 返回删除前n个元素后的流
+     */
+    public Stream<A> drop(int n) {
+        return drop_(this, n).eval();
+    }
+
+    /**
+     * 只要条件为真，则删除流的head元素
+     *
+     * @param p 用于判断的函数
+     * @return 返回处理过后的流
+     */
+    public Stream<A> dropWhile(Function<A, Boolean> p) {
+        return dropWhile_(this, p).eval();
+    }
+
+    /**
+     * 对流中的每一个元素应用函数，惰性求值
+     *
+     * @param f 映射函数
+     * @return 返回映射后的流
+     */
+    public <B> Stream<B> map(Function<A, B> f) {
+        return isEmpty()
+                ? empty()
+                : cons(() -> f.apply(head()), () -> tail().map(f));
+    }
+
+    /**
+     * 过滤，只保留函数结果为true的元素。跳过不满足条件的元素时使用 TailCall
+     *
+     * @param p 过滤函数
+     * @return 返回过滤后的流
+     */
+    public Stream<A> filter(Function<A, Boolean> p) {
+        Stream<A> stream = dropWhile(a -> !p.apply(a));
+        return stream.isEmpty()
+                ? empty()
+                : cons(stream::head, () -> stream.tail().filter(p));
+    }
+
+    /**
+     * 将每个元素映射为一个流，并把这些流依次连接起来，惰性求值
+     *
+     * @param f 映射函数
+     * @return 返回连接后的流
+     */
+    public <B> Stream<B> flatMap(Function<A, Stream<B>> f) {
+        return flatMap_(this, f).eval();
+    }
+
+    /**
+     * 在当前流之后连接另一个流，惰性求值
+     *
+     * @param other 待连接的流
+     * @return 返回连接后的流
+     */
+    public Stream<A> append(Supplier<Stream<A>> other) {
+        return isEmpty()
+                ? other.get()
+                : cons(this::head, () -> tail().append(other));
+    }
+
+    /**
+     * 是否存在满足条件的元素，找到后立即停止
+     *
+     * @param p 用于判断的函数
+     * @return 如果存在满足条件的元素，则返回true，否则返回false
+     */
+    public boolean exists(Function<A, Boolean> p) {
+        return !dropWhile(a -> !p.apply(a)).isEmpty();
+    }
+
+    /**
+     * 查找第一个满足条件的元素，找到后立即停止
+     *
+     * @param p 用于判断的函数
+     * @return 找到时返回成功的结果，否则返回失败的结果
+     */
+    @SuppressWarnings("unchecked")
+    public Result<A> find(Function<A, Boolean> p) {
+        Stream<A> stream = dropWhile(a -> !p.apply(a));
+        return stream.isEmpty()
+                ? NOT_FOUND
+                : Result.success(stream.head());
+    }
+
+    /**
+     * 左折叠，会遍历整个流，因此只能用于有限的流
+     *
+     * @param identity 初始值
+     * @param f        折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        return foldLeft_(identity, this, f).eval();
+    }
+
+    /**
+     * 将有限的流转换为列表
+     *
+     * @return 返回包含流中所有元素的列表
+     */
+    public List<A> toList() {
+        return foldLeft(List.<A>list(), l -> l::cons).reverse();
+    }
+
+    private static class Empty<A> extends Stream<A> {
+
+        @Override
+        public A head() {
+            throw new IllegalStateException("head called on empty stream");
+        }
+
+        @Override
+        public Stream<A> tail() {
+            throw new IllegalStateException("tail called on empty stream");
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return true;
+        }
+
+        @Override
+        public Stream<A> take(int n) {
+            return this;
+        }
+
+        @Override
+        public Stream<A> takeWhile(Function<A, Boolean> p) {
+            return this;
+        }
+
+        @Override
+        public <B> B foldRight(Supplier<B> identity, Function<A, Function<Supplier<B>, B>> f) {
+            return identity.get();
+        }
+
+        @Override
+        public String toString() {
+            return "[NIL]";
+        }
+    }
+
+    private static class Cons<A> extends Stream<A> {
+
+        // 求值之前保存延迟计算的 Supplier，求值后置为 null，释放闭包引用的上游节点
+        private volatile Supplier<A> head;
+        private volatile Supplier<Stream<A>> tail;
+
+        // 求值结果，在 Supplier 置为 null 之前写入，因此读到 null 的 Supplier 时一定能看到结果。
+        // 用 Supplier 是否为 null 判断是否已经求值，结果本身为 null 也不会重复计算
+        private A h;
+        private Stream<A> t;
+
+        private Cons(Supplier<A> head, Supplier<Stream<A>> tail) {
+            this.head = head;
+            this.tail = tail;
+        }
+
+        // 只在第一次求值时加锁，保证每个 Supplier 只执行一次
+        @Override
+        public A head() {
+            if (head != null) {
+                synchronized (this) {
+                    Supplier<A> pending = head;
+                    if (pending != null) {
+                        h = pending.get();
+                        head = null;
+                    }
+                }
+            }
+            return h;
+        }
+
+        @Override
+        public Stream<A> tail() {
+            if (tail != null) {
+                synchronized (this) {
+                    Supplier<Stream<A>> pending = tail;
+                    if (pending != null) {
+                        t = pending.get();
+                        tail = null;
+                    }
+                }
+            }
+            return t;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return false;
+        }
+
+        @Override
+        public Stream<A> take(int n) {
+            return n <= 0
+                    ? empty()
+                    : n == 1
+                    ? cons(this::head, empty())
+                    : cons(this::head, () -> tail().take(n - 1));
+        }
+
+        @Override
+        public Stream<A> takeWhile(Function<A, Boolean> p) {
+            return p.apply(head())
+                    ? cons(this::head, () -> tail().takeWhile(p))
+                    : empty();
+        }
+
+        @Override
+        public <B> B foldRight(Supplier<B> identity, Function<A, Function<Supplier<B>, B>> f) {
+            return f.apply(head()).apply(() -> tail().foldRight(identity, f));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("[%s, ?]", head());
+        }
+    }
+
+    private static <A> TailCall<Stream<A>> drop_(Stream<A> stream, int n) {
+        return new Loop<Stream<A>>() {
+            private Stream<A> rest = stream;
+            private int remaining = n;
+
+            @Override
+            protected boolean step() {
+                if (remaining <= 0 || rest.isEmpty()) {
+                    return false;
+                }
+                rest = rest.tail();
+                remaining--;
+                return true;
+            }
+
+            @Override
+            protected Stream<A> result() {
+                return rest;
+            }
+        };
+    }
+
+    private static <A> TailCall<Stream<A>> dropWhile_(Stream<A> stream, Function<A, Boolean> p) {
+        return new Loop<Stream<A>>() {
+            private Stream<A> rest = stream;
+
+            @Override
+            protected boolean step() {
+                if (rest.isEmpty() || !p.apply(rest.head())) {
+                    return false;
+                }
+                rest = rest.tail();
+                return true;
+            }
+
+            @Override
+            protected Stream<A> result() {
+                return rest;
+            }
+        };
+    }
+
+    private static <A, B> TailCall<B> foldLeft_(B identity, Stream<A> stream, Function<B, Function<A, B>> f) {
+        return new Loop<B>() {
+            private B acc = identity;
+            private Stream<A> rest = stream;
+
+            @Override
+            protected boolean step() {
+                if (rest.isEmpty()) {
+                    return false;
+                }
+                acc = f.apply(acc).apply(rest.head());
+                rest = rest.tail();
+                return true;
+            }
+
+            @Override
+            protected B result() {
+                return acc;
+            }
+        };
+    }
+
+    // 跳过映射结果为空的元素，找到第一个非空的流后再惰性连接剩余部分
+    private static <A, B> TailCall<Stream<B>> flatMap_(Stream<A> stream, Function<A, Stream<B>> f) {
+        if (stream.isEmpty()) {
+            return ret(empty());
+        }
+        Stream<B> first = f.apply(stream.head());
+        return first.isEmpty()
+                ? sus(() -> flatMap_(stream.tail(), f))
+                : ret(first.append(() -> stream.tail().flatMap(f)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A> Stream<A> empty() {
+        return EMPTY;
+    }
+
+    public static <A> Stream<A> cons(Supplier<A> head, Supplier<Stream<A>> tail) {
+        return new Cons<>(head, tail);
+    }
+
+    public static <A> Stream<A> cons(Supplier<A> head, Stream<A> tail) {
+        return new Cons<>(head, () -> tail);
+    }
+
+    /**
+     * 生成无限流 seed, f(seed), f(f(seed)) ...
+     *
+     * @param seed 第一个元素
+     * @param f    由前一个元素计算下一个元素的函数
+     * @return 返回无限流
+     */
+    public static <A> Stream<A> iterate(A seed, Function<A, A> f) {
+        return cons(() -> seed, () -> iterate(f.apply(seed), f));
+    }
+
+    /**
+     * 从列表创建流
+     *
+     * @param list 元素来源
+     * @return 返回依次包含列表元素的流
+     */
+    public static <A> Stream<A> fromList(List<A> list) {
+        return list.isEmpty()
+                ? empty()
+                : cons(list::head, () -> fromList(list.tail()));
+    }
+}
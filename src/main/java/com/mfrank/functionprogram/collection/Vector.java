@@ -0,0 +1,387 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Function;
+
+import java.util.Arrays;
+
+/**
+ * 持久化向量，32 路位图分支的前缀树（bit-mapped vector trie）。
+ * <p>
+ * 元素按下标存放在叶子节点中，每层用下标的 5 个比特选择分支，树高不超过 7，
+ * 因此 get/update 实际上是 O(1) 的。最后一个不满 32 个元素的叶子单独作为 tail 保存，
+ * append/pop 绝大多数情况下只复制 tail。所有修改操作都只复制从根到目标叶子的路径，其余节点与旧版本共享。
+ */
+public final class Vector<A> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final Object[] EMPTY_TAIL = new Object[0];
+
+    @SuppressWarnings("rawtypes")
+    private static final Vector EMPTY = new Vector<>(0, BITS, EMPTY_NODE, EMPTY_TAIL);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private Vector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <A> Vector<A> vector() {
+        return EMPTY;
+    }
+
+    @SafeVarargs
+    public static <A> Vector<A> vector(A... a) {
+        // 逐个复制到 Object[] 中，不把参数数组本身交出去，运行时类型更窄的数组也不会导致之后的 ArrayStoreException
+        Object[] elements = new Object[a.length];
+        int i = 0;
+        for (A element : a) {
+            elements[i++] = element;
+        }
+        return fromArray(elements, elements.length);
+    }
+
+    /**
+     * 将列表转换为向量
+     *
+     * @param list 待转换的列表
+     * @return 返回包含相同元素的向量
+     */
+    public static <A> Vector<A> fromList(List<A> list) {
+        Buffer buffer = list.foldLeft(new Buffer(), b -> a -> b.add(a));
+        return fromArray(buffer.elements, buffer.size);
+    }
+
+    /**
+     * 元素个数
+     *
+     * @return 返回向量中元素的个数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 向量是否为空
+     *
+     * @return 如果向量为空，则返回true，否则返回false
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 获取指定下标的元素
+     *
+     * @param i 下标
+     * @return 返回下标处的元素
+     */
+    @SuppressWarnings("unchecked")
+    public A get(int i) {
+        return (A) leafFor(i)[i & MASK];
+    }
+
+    /**
+     * 替换指定下标的元素
+     *
+     * @param i 下标
+     * @param a 新的元素
+     * @return 返回替换后的新向量
+     */
+    public Vector<A> update(int i, A a) {
+        checkIndex(i);
+        if (i >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[i & MASK] = a;
+            return new Vector<>(size, shift, root, newTail);
+        }
+        return new Vector<>(size, shift, update(shift, root, i, a), tail);
+    }
+
+    /**
+     * 在向量尾部添加一个元素
+     *
+     * @param a 待添加的元素
+     * @return 返回添加元素后的向量
+     */
+    public Vector<A> append(A a) {
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = a;
+            return new Vector<>(size + 1, shift, root, newTail);
+        }
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new Vector<>(size + 1, newShift, newRoot, new Object[]{a});
+    }
+
+    /**
+     * 删除最后一个元素
+     *
+     * @return 返回删除最后一个元素后的向量
+     */
+    public Vector<A> pop() {
+        if (size == 0) {
+            throw new IllegalStateException("pop called on empty vector");
+        }
+        if (size == 1) {
+            return vector();
+        }
+        if (size - tailOffset() > 1) {
+            return new Vector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+        Object[] newTail = leafFor(size - 2);
+        Object[] newRoot = popTail(shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = EMPTY_NODE;
+        }
+        if (shift > BITS && newRoot[1] == null) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+        return new Vector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    /**
+     * 获取最后一个元素
+     *
+     * @return 返回最后一个元素
+     */
+    public A last() {
+        if (size == 0) {
+            throw new IllegalStateException("last called on empty vector");
+        }
+        return get(size - 1);
+    }
+
+    /**
+     * 左折叠
+     * @param identity 初始值
+     * @param f 折叠函数
+     * @return 返回左折叠后的结果
+     */
+    @SuppressWarnings("unchecked")
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        B acc = identity;
+        for (int i = 0; i < size; i += WIDTH) {
+            Object[] leaf = leafFor(i);
+            int n = Math.min(WIDTH, size - i);
+            for (int j = 0; j < n; j++) {
+                acc = f.apply(acc).apply((A) leaf[j]);
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * 右折叠
+     * @param identity 初始值
+     * @param f 折叠函数
+     * @return 返回右折叠后的结果
+     */
+    @SuppressWarnings("unchecked")
+    public <B> B foldRight(B identity, Function<A, Function<B, B>> f) {
+        B acc = identity;
+        for (int i = (size - 1) & ~MASK; i >= 0; i -= WIDTH) {
+            Object[] leaf = leafFor(i);
+            for (int j = Math.min(WIDTH, size - i) - 1; j >= 0; j--) {
+                acc = f.apply((A) leaf[j]).apply(acc);
+            }
+        }
+        return acc;
+    }
+
+    /**
+     * 对向量中的每一个元素应用函数，树的形状保持不变
+     * @param f 映射函数
+     * @return 返回映射后的向量
+     */
+    public <B> Vector<B> map(Function<A, B> f) {
+        return new Vector<>(size, shift, map(shift, root, f), mapLeaf(tail, f));
+    }
+
+    /**
+     * 过滤，取出函数结果为true的元素
+     * @param f 过滤函数
+     * @return 返回过滤后的向量
+     */
+    public Vector<A> filter(Function<A, Boolean> f) {
+        Buffer buffer = foldLeft(new Buffer(), b -> a -> f.apply(a) ? b.add(a) : b);
+        return fromArray(buffer.elements, buffer.size);
+    }
+
+    /**
+     * 转换为列表
+     *
+     * @return 返回包含相同元素的列表
+     */
+    public List<A> toList() {
+        return foldRight(List.list(), a -> l -> l.cons(a));
+    }
+
+    @Override
+    public String toString() {
+        return foldLeft(new StringBuilder("["), sb -> a -> sb.length() == 1 ? sb.append(a) : sb.append(", ").append(a))
+                .append("]").toString();
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+        }
+    }
+
+    private Object[] leafFor(int i) {
+        checkIndex(i);
+        if (i >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(i >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private static Object[] update(int level, Object[] node, int i, Object a) {
+        Object[] result = node.clone();
+        if (level == 0) {
+            result[i & MASK] = a;
+        } else {
+            int index = (i >>> level) & MASK;
+            result[index] = update(level - BITS, (Object[]) node[index], i, a);
+        }
+        return result;
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int index = ((size - 1) >>> level) & MASK;
+        Object[] result = parent.clone();
+        Object[] child;
+        if (level == BITS) {
+            child = tailNode;
+        } else {
+            Object[] existing = (Object[]) parent[index];
+            child = existing != null
+                    ? pushTail(level - BITS, existing, tailNode)
+                    : newPath(level - BITS, tailNode);
+        }
+        result[index] = child;
+        return result;
+    }
+
+    private Object[] popTail(int level, Object[] node) {
+        int index = ((size - 2) >>> level) & MASK;
+        if (level > BITS) {
+            Object[] child = popTail(level - BITS, (Object[]) node[index]);
+            if (child == null && index == 0) {
+                return null;
+            }
+            Object[] result = node.clone();
+            result[index] = child;
+            return result;
+        } else if (index == 0) {
+            return null;
+        } else {
+            Object[] result = node.clone();
+            result[index] = null;
+            return result;
+        }
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        Object[] result = node;
+        for (int l = level; l > 0; l -= BITS) {
+            Object[] parent = new Object[WIDTH];
+            parent[0] = result;
+            result = parent;
+        }
+        return result;
+    }
+
+    private static <A, B> Object[] map(int level, Object[] node, Function<A, B> f) {
+        if (level == 0) {
+            return mapLeaf(node, f);
+        }
+        Object[] result = new Object[WIDTH];
+        for (int i = 0; i < WIDTH && node[i] != null; i++) {
+            result[i] = map(level - BITS, (Object[]) node[i], f);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A, B> Object[] mapLeaf(Object[] leaf, Function<A, B> f) {
+        Object[] result = new Object[leaf.length];
+        for (int i = 0; i < leaf.length; i++) {
+            result[i] = f.apply((A) leaf[i]);
+        }
+        return result;
+    }
+
+    /**
+     * 自底向上一次性构建，避免逐个 append 时反复复制 tail
+     */
+    private static <A> Vector<A> fromArray(Object[] elements, int n) {
+        if (n == 0) {
+            return vector();
+        }
+        int tailOffset = n <= WIDTH ? 0 : ((n - 1) >>> BITS) << BITS;
+        Object[] tail = Arrays.copyOfRange(elements, tailOffset, n);
+        if (tailOffset == 0) {
+            return new Vector<>(n, BITS, EMPTY_NODE, tail);
+        }
+        Object[] nodes = new Object[tailOffset >>> BITS];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = Arrays.copyOfRange(elements, i << BITS, (i + 1) << BITS);
+        }
+        int shift = BITS;
+        while (nodes.length > WIDTH) {
+            Object[] parents = new Object[(nodes.length + MASK) >>> BITS];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = Arrays.copyOfRange(nodes, i << BITS, (i + 1) << BITS);
+            }
+            nodes = parents;
+            shift += BITS;
+        }
+        return new Vector<>(n, shift, Arrays.copyOf(nodes, WIDTH), tail);
+    }
+
+    // 构建时使用的可变缓冲区，只在方法内部使用，不会泄漏
+    private static final class Buffer {
+
+        private Object[] elements = new Object[WIDTH];
+        private int size;
+
+        private Buffer add(Object a) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = a;
+            return this;
+        }
+    }
+}
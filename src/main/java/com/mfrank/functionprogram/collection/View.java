@@ -0,0 +1,140 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Function;
+import com.mfrank.functionprogram.base.Metrics;
+
+import java.util.ArrayList;
+
+/**
+ * 列表的惰性视图，由 List.view() 创建。
+ * <p>
+ * map/filter/flatMap/takeWhile 只记录处理阶段，不遍历列表，也不创建中间列表。
+ * 调用 foldLeft/toList 等终止操作时，各阶段被串联成一条处理链，只遍历源列表一次，
+ * 每个元素依次经过所有阶段；takeWhile 条件不满足时整个遍历立即停止。
+ * 视图不保存结果，每次终止操作都会重新遍历源列表。
+ */
+public final class View<A> {
+
+    private final List<Object> source;
+    // 由下游的 Sink 构造出接收源列表元素的 Sink
+    private final Function<Sink<A>, Sink<Object>> pipeline;
+
+    private View(List<Object> source, Function<Sink<A>, Sink<Object>> pipeline) {
+        this.source = source;
+        this.pipeline = pipeline;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A> View<A> of(List<A> list) {
+        return new View<>((List<Object>) list, sink -> (Sink<Object>) (Sink<?>) sink);
+    }
+
+    /**
+     * 对每一个元素应用函数
+     *
+     * @param f 映射函数
+     * @return 返回增加了映射阶段的视图
+     */
+    public <B> View<B> map(Function<A, B> f) {
+        return new View<>(source, down -> pipeline.apply(a -> down.accept(f.apply(a))));
+    }
+
+    /**
+     * 过滤，只保留函数结果为true的元素
+     *
+     * @param p 过滤函数
+     * @return 返回增加了过滤阶段的视图
+     */
+    public View<A> filter(Function<A, Boolean> p) {
+        return new View<>(source, down -> pipeline.apply(a -> !p.apply(a) || down.accept(a)));
+    }
+
+    /**
+     * 将每个元素映射为一个列表，并依次展开其中的元素
+     *
+     * @param f 映射函数
+     * @return 返回增加了展开阶段的视图
+     */
+    public <B> View<B> flatMap(Function<A, List<B>> f) {
+        return new View<>(source, down -> pipeline.apply(a -> {
+            for (List<B> list = f.apply(a); !list.isEmpty(); list = list.tail()) {
+                if (!down.accept(list.head())) {
+                    return false;
+                }
+            }
+            return true;
+        }));
+    }
+
+    /**
+     * 只要条件为真，就保留元素，第一次不满足条件时停止遍历
+     *
+     * @param p 用于判断的函数
+     * @return 返回增加了截断阶段的视图
+     */
+    public View<A> takeWhile(Function<A, Boolean> p) {
+        return new View<>(source, down -> pipeline.apply(a -> p.apply(a) && down.accept(a)));
+    }
+
+    /**
+     * 左折叠，只遍历源列表一次
+     *
+     * @param identity 初始值
+     * @param f        折叠函数
+     * @return 返回左折叠后的结果
+     */
+    public <B> B foldLeft(B identity, Function<B, Function<A, B>> f) {
+        Fold<A, B> fold = new Fold<>(identity, f);
+        run(fold);
+        return fold.acc;
+    }
+
+    /**
+     * 强制求值，得到包含所有结果元素的列表
+     *
+     * @return 返回结果列表
+     */
+    public List<A> toList() {
+        ArrayList<A> buffer = new ArrayList<>();
+        run(a -> {
+            buffer.add(a);
+            return true;
+        });
+        return List.fromJavaList(buffer);
+    }
+
+    private void run(Sink<A> sink) {
+        Sink<Object> head = pipeline.apply(sink);
+        long count = 0;
+        for (List<Object> list = source; !list.isEmpty(); list = list.tail()) {
+            count++;
+            if (!head.accept(list.head())) {
+                break;
+            }
+        }
+        Metrics.fold(count);
+    }
+
+    // 接收一个元素，返回false表示不再需要后续元素
+    private interface Sink<A> {
+
+        boolean accept(A a);
+    }
+
+    private static final class Fold<A, B> implements Sink<A> {
+
+        private final Function<B, Function<A, B>> f;
+        private B acc;
+
+        private Fold(B identity, Function<B, Function<A, B>> f) {
+            this.f = f;
+            this.acc = identity;
+        }
+
+        @Override
+        public boolean accept(A a) {
+            acc = f.apply(acc).apply(a);
+            return true;
+        }
+    }
+}
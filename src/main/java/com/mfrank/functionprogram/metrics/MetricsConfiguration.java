@@ -0,0 +1,39 @@
+package com.mfrank.functionprogram.metrics;
+
+import com.mfrank.functionprogram.base.CountingMetricsRecorder;
+import com.mfrank.functionprogram.base.Metrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * 启动时安装计数实现，关闭时卸载。
+ * 度量默认关闭，此时热点路径上只有一次引用比较；设置 function-program.metrics.enabled=true 开启，
+ * 开启后每次 TailCall 求值和折叠都要计时并更新计数
+ */
+@Configuration
+@ConditionalOnProperty(name = "function-program.metrics.enabled", havingValue = "true")
+public class MetricsConfiguration {
+
+    private final CountingMetricsRecorder recorder = new CountingMetricsRecorder();
+
+    @Bean
+    public CountingMetricsRecorder countingMetricsRecorder() {
+        return recorder;
+    }
+
+    @PostConstruct
+    public void install() {
+        Metrics.install(recorder);
+    }
+
+    @PreDestroy
+    public void uninstall() {
+        if (Metrics.recorder() == recorder) {
+            Metrics.uninstall();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.mfrank.functionprogram.metrics;
+
+import com.mfrank.functionprogram.base.CountingMetricsRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 以 JSON 形式暴露记忆化命中率、蹦床跳转次数和折叠规模，
+ * GET /diagnostics/metrics 查询，DELETE /diagnostics/metrics 清零计数
+ */
+@RestController
+@ConditionalOnProperty(name = "function-program.metrics.enabled", havingValue = "true")
+@RequestMapping("/diagnostics/metrics")
+public class MetricsController {
+
+    private final CountingMetricsRecorder recorder;
+
+    public MetricsController(CountingMetricsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @GetMapping
+    public Map<String, Object> metrics() {
+        return recorder.snapshot();
+    }
+
+    @DeleteMapping
+    public Map<String, Object> reset() {
+        recorder.reset();
+        return recorder.snapshot();
+    }
+}
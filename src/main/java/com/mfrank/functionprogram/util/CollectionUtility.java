@@ -1,9 +1,25 @@
 package com.mfrank.functionprogram.util;
 
 import com.mfrank.functionprogram.base.Function;
+import com.mfrank.functionprogram.base.Metrics;
+import com.mfrank.functionprogram.base.Monoid;
 import com.mfrank.functionprogram.base.TailCall;
+import com.mfrank.functionprogram.base.Transducer;
+import com.mfrank.functionprogram.base.Tuple;
 
-import java.util.*;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntConsumer;
 
 import static com.mfrank.functionprogram.base.TailCall.ret;
 import static com.mfrank.functionprogram.base.TailCall.sus;
@@ -15,11 +31,14 @@ public class CollectionUtility {
         for (T t : ts) {
             result = f.apply(result).apply(t);
         }
+        Metrics.fold(ts.size());
         return result;
     }
 
     public static <T, U> U foldLeft(List<T> ts, U identity, Function<U, Function<T, U>> f) {
-        return foldLeft_(ts, identity, f).eval();
+        U result = foldLeft_(ts, identity, f).eval();
+        Metrics.fold(ts.size());
+        return result;
     }
 
     public static <T, U> TailCall<U> foldLeft_(List<T> ts, U identity, Function<U, Function<T, U>> f) {
@@ -29,7 +48,9 @@ public class CollectionUtility {
     }
 
     public static <T, U> U foldRight(List<T> ts, U identity, Function<T, Function<U, U>> f) {
-        return foldRight_(identity, reverse(ts), f).eval();
+        U result = foldRight_(identity, reverse(ts), f).eval();
+        Metrics.fold(ts.size());
+        return result;
     }
 
     private static <T, U> TailCall<U> foldRight_(U acc, List<T> ts, Function<T, Function<U, U>> f) {
@@ -38,6 +59,47 @@ public class CollectionUtility {
                 : sus(() -> foldRight_(f.apply(head(ts)).apply(acc), tail(ts), f));
     }
 
+    // 并行折叠：切分为若干段，在 ForkJoinPool 中分别从 m 的单位元开始折叠，再按原顺序用 m 合并
+    public static <T, U> U parFoldLeft(List<T> ts, Monoid<U> m, Function<U, Function<T, U>> f) {
+        return parFoldLeft(ForkJoinPool.commonPool(), ts, m, f);
+    }
+
+    public static <T, U> U parFoldLeft(ForkJoinPool pool, List<T> ts, Monoid<U> m, Function<U, Function<T, U>> f) {
+        List<T> source = randomAccess(ts);
+        return pool.invoke(new FoldTask<>(source, 0, source.size(), threshold(pool, source.size()), m, f));
+    }
+
+    // 并行映射，结果保持原顺序
+    public static <T, U> List<U> parMap(List<T> ts, Function<T, U> f) {
+        return parMap(ForkJoinPool.commonPool(), ts, f);
+    }
+
+    public static <T, U> List<U> parMap(ForkJoinPool pool, List<T> ts, Function<T, U> f) {
+        List<T> source = randomAccess(ts);
+        Object[] result = new Object[source.size()];
+        pool.invoke(new ForEachTask(0, source.size(), threshold(pool, source.size()), i -> result[i] = f.apply(source.get(i))));
+        return ListView.wrap(result, result.length);
+    }
+
+    // 并行过滤，并行计算每个元素是否保留，再按原顺序收集
+    public static <T> List<T> parFilter(List<T> ts, Function<T, Boolean> f) {
+        return parFilter(ForkJoinPool.commonPool(), ts, f);
+    }
+
+    public static <T> List<T> parFilter(ForkJoinPool pool, List<T> ts, Function<T, Boolean> f) {
+        List<T> source = randomAccess(ts);
+        boolean[] keep = new boolean[source.size()];
+        pool.invoke(new ForEachTask(0, source.size(), threshold(pool, source.size()), i -> keep[i] = f.apply(source.get(i))));
+        Object[] result = new Object[source.size()];
+        int n = 0;
+        for (int i = 0; i < keep.length; i++) {
+            if (keep[i]) {
+                result[n++] = source.get(i);
+            }
+        }
+        return ListView.wrap(result, n);
+    }
+
     public static <T, U> List<U> map(List<T> list, Function<T, U> f) {
         List<U> newList = new ArrayList<>();
         for (T value : list) {
@@ -46,14 +108,100 @@ public class CollectionUtility {
         return newList;
     }
 
-    public static List<Integer> range(Integer start, Integer end) {
-        return range_(list(), start, end).eval();
+    // 按需惰性求值的折叠，适用于 iterate/unfold 等生成器，只占用常量内存
+    public static <T, U> U fold(Iterable<T> ts, U identity, Function<U, Function<T, U>> f) {
+        U result = identity;
+        long count = 0;
+        for (T t : ts) {
+            result = f.apply(result).apply(t);
+            count++;
+        }
+        Metrics.fold(count);
+        return result;
+    }
+
+    // 使用转换器的折叠，所有阶段在一次遍历中完成，转换器提前终止时不再读取后续元素
+    public static <T, V, U> U fold(Iterable<T> ts, Transducer<T, V> xf, U identity, Function<U, Function<V, U>> f) {
+        return xf.transduce(ts, identity, f);
+    }
+
+    public static <T, U> U foldLeft(Iterable<T> ts, U identity, Function<U, Function<T, U>> f) {
+        return fold(ts, identity, f);
+    }
+
+    // 惰性映射，每次遍历时才对元素应用函数
+    public static <T, U> Iterable<U> map(Iterable<T> ts, Function<T, U> f) {
+        return () -> new Iterator<U>() {
+            private final Iterator<T> iterator = ts.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public U next() {
+                return f.apply(iterator.next());
+            }
+        };
     }
 
-    public static TailCall<List<Integer>> range_(List<Integer> acc, Integer start, Integer end) {
+    // 半开区间 [start, end)，返回不存储元素的只读列表，元素在访问时计算
+    public static List<Integer> range(Integer start, Integer end) {
         return end <= start
-                ? ret(acc)
-                : sus(() -> range_(append(acc, start), start + 1, end));
+                ? list()
+                : new Range(start, end);
+    }
+
+    // 闭区间 [start, end]，右端点按 long 计算，end 为 Integer.MAX_VALUE 时同样不存储元素
+    public static List<Integer> rangeClosed(Integer start, Integer end) {
+        return end < start
+                ? list()
+                : new Range(start, (long) end + 1);
+    }
+
+    // 惰性生成 seed, f(seed), f(f(seed)) ... 共 n 个元素
+    public static <T> Iterable<T> iterate(T seed, Function<T, T> f, int n) {
+        return () -> new Iterator<T>() {
+            private T next = seed;
+            private int remaining = n;
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            public T next() {
+                if (remaining <= 0) {
+                    throw new NoSuchElementException();
+                }
+                T result = next;
+                if (--remaining > 0) {
+                    next = f.apply(next);
+                }
+                return result;
+            }
+        };
+    }
+
+    // 从状态 seed 开始惰性展开，f 返回空时结束，否则返回 (元素, 下一个状态)
+    public static <T, S> Iterable<T> unfold(S seed, Function<S, Optional<Tuple<T, S>>> f) {
+        return () -> new Iterator<T>() {
+            private Optional<Tuple<T, S>> next = f.apply(seed);
+
+            @Override
+            public boolean hasNext() {
+                return next.isPresent();
+            }
+
+            @Override
+            public T next() {
+                Tuple<T, S> current = next.orElseThrow(NoSuchElementException::new);
+                next = f.apply(current._2);
+                return current._1;
+            }
+        };
     }
 
     public static <T> boolean isEmpty(Collection<T> collection) {
@@ -68,19 +216,12 @@ public class CollectionUtility {
         return list.get(0);
     }
 
-    // 复制列表
-    private static <T> List<T> copy(List<T> ts) {
-        return new ArrayList<>(ts);
-    }
-
-    // 删除第一个元素后的列表
+    // 删除第一个元素后的列表，返回 O(1) 的只读视图，不复制元素
     public static <T> List<T> tail(List<T> list) {
         if (list.size() == 0) {
             throw new IllegalStateException("tail of empty list");
         }
-        List<T> workList = copy(list);
-        workList.remove(0);
-        return Collections.unmodifiableList(workList);
+        return ListView.of(list).tail();
     }
 
     public static <T> List<T> list() {
@@ -92,25 +233,131 @@ public class CollectionUtility {
     }
 
     public static <T> List<T> list(List<T> ts) {
-        return Collections.unmodifiableList(new ArrayList<>(ts));
+        return ListView.copyOf(ts.toArray(), 0);
     }
 
     public static <T> List<T> list(T... t) {
-        return Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(t, t.length)));
+        return ListView.copyOf(t, 0);
     }
 
+    // 在列表尾部添加元素，共享底层缓冲区，均摊 O(1)
     public static <T> List<T> append(List<T> list, T t) {
-        List<T> ts = copy(list);
-        ts.add(t);
-        return Collections.unmodifiableList(ts);
+        return ListView.of(list).append(t);
     }
 
+    // 在列表头部添加元素，共享底层缓冲区，均摊 O(1)
     public static <T> List<T> prepend(T t, List<T> list) {
-        return foldLeft(list, list(t), a -> b -> append(a, b));
+        return ListView.of(list).prepend(t);
     }
 
     public static <T> List<T> reverse(List<T> list) {
-        return foldLeft(list, list(), x -> y -> foldLeft(x, list(y), a -> b -> append(a, b)));
+        return ListView.of(list).reverse();
+    }
+
+    private static final int MIN_CHUNK = 512;
+
+    // 每个工作线程大约分到 4 段，便于工作窃取，但每段不少于 MIN_CHUNK 个元素
+    private static int threshold(ForkJoinPool pool, int size) {
+        return Math.max(MIN_CHUNK, size / (pool.getParallelism() * 4));
+    }
+
+    private static <T> List<T> randomAccess(List<T> ts) {
+        return ts instanceof RandomAccess ? ts : ListView.of(ts);
+    }
+
+    private static final class FoldTask<T, U> extends RecursiveTask<U> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> ts;
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final Monoid<U> m;
+        private final Function<U, Function<T, U>> f;
+
+        private FoldTask(List<T> ts, int from, int to, int threshold, Monoid<U> m, Function<U, Function<T, U>> f) {
+            this.ts = ts;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.m = m;
+            this.f = f;
+        }
+
+        @Override
+        protected U compute() {
+            if (to - from <= threshold) {
+                U result = m.identity();
+                for (int i = from; i < to; i++) {
+                    result = f.apply(result).apply(ts.get(i));
+                }
+                return result;
+            }
+            int middle = (from + to) >>> 1;
+            FoldTask<T, U> left = new FoldTask<>(ts, from, middle, threshold, m, f);
+            left.fork();
+            U right = new FoldTask<>(ts, middle, to, threshold, m, f).compute();
+            return m.combine(left.join(), right);
+        }
+    }
+
+    private static final class ForEachTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final IntConsumer action;
+
+        private ForEachTask(int from, int to, int threshold, IntConsumer action) {
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                for (int i = from; i < to; i++) {
+                    action.accept(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ForEachTask(from, middle, threshold, action), new ForEachTask(middle, to, threshold, action));
+        }
+    }
+
+    static final class Range extends AbstractList<Integer> implements RandomAccess {
+
+        private final int start;
+        private final int size;
+
+        // end 是不包含的右端点，可以等于 Integer.MAX_VALUE + 1
+        private Range(int start, long end) {
+            long size = end - start;
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("range too large: [" + start + ", " + end + ")");
+            }
+            this.start = start;
+            this.size = (int) size;
+        }
+
+        @Override
+        public Integer get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return start + index;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
     }
 
 }
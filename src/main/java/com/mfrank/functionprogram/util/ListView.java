@@ -0,0 +1,151 @@
+package com.mfrank.functionprogram.util;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 只读的偏移量视图，tail 只移动偏移量，不复制元素。
+ * <p>
+ * 视图要么直接引用一个已知不可变的源列表（range、emptyList、singletonList），要么引用一块共享的数组缓冲区，
+ * 其它列表（包括 ArrayList 和 unmodifiableList 包装的列表）都先复制一次，调用方之后修改源列表不会影响视图。
+ * 多个视图可以共享同一块缓冲区，缓冲区记录已经被占用的区间 [start, end)，
+ * 当视图恰好位于占用区间的边界时，append/prepend 直接占用相邻的空闲槽位，否则才复制到新的缓冲区，
+ * 因此连续的 append/prepend 是均摊 O(1) 的，而已有视图看到的内容永远不会改变。
+ */
+final class ListView<T> extends AbstractList<T> implements RandomAccess {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private static final Class<?> EMPTY_LIST = Collections.emptyList().getClass();
+    private static final Class<?> SINGLETON_LIST = Collections.singletonList(null).getClass();
+
+    private final List<T> source;
+    private final Buffer buffer;
+    private final int offset;
+    private final int size;
+
+    private ListView(List<T> source, Buffer buffer, int offset, int size) {
+        this.source = source;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    /**
+     * 为列表创建视图，不可变的列表直接引用，可能被修改的列表先复制一次
+     */
+    static <T> ListView<T> of(List<T> list) {
+        if (list instanceof ListView) {
+            return (ListView<T>) list;
+        }
+        if (isImmutable(list)) {
+            return new ListView<>(list, null, 0, list.size());
+        }
+        return copyOf(list.toArray(), 0);
+    }
+
+    private static boolean isImmutable(List<?> list) {
+        return list instanceof CollectionUtility.Range
+                || list.getClass() == EMPTY_LIST
+                || list.getClass() == SINGLETON_LIST;
+    }
+
+    /**
+     * 以数组的内容创建视图，数组会被复制，前面预留 headroom 个空闲槽位
+     */
+    static <T> ListView<T> copyOf(Object[] elements, int headroom) {
+        int capacity = Math.max(MIN_CAPACITY, headroom + elements.length * 2);
+        Object[] array = new Object[capacity];
+        System.arraycopy(elements, 0, array, headroom, elements.length);
+        return new ListView<>(null, new Buffer(array, headroom, headroom + elements.length), headroom, elements.length);
+    }
+
+    /**
+     * 直接包装数组的前 size 个元素，不复制，调用方不能再修改这个数组
+     */
+    static <T> ListView<T> wrap(Object[] array, int size) {
+        return new ListView<>(null, new Buffer(array, 0, size), 0, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return source != null
+                ? source.get(offset + index)
+                : (T) buffer.array[offset + index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    ListView<T> tail() {
+        if (size == 0) {
+            throw new IllegalStateException("tail of empty list");
+        }
+        return new ListView<>(source, buffer, offset + 1, size - 1);
+    }
+
+    ListView<T> append(T t) {
+        int end = offset + size;
+        if (buffer != null && end < buffer.array.length && buffer.end.compareAndSet(end, end + 1)) {
+            buffer.array[end] = t;
+            return new ListView<>(null, buffer, offset, size + 1);
+        }
+        Object[] array = new Object[Math.max(MIN_CAPACITY, size * 2 + 1)];
+        copyTo(array, 0);
+        array[size] = t;
+        return new ListView<>(null, new Buffer(array, 0, size + 1), 0, size + 1);
+    }
+
+    ListView<T> prepend(T t) {
+        if (buffer != null && offset > 0 && buffer.start.compareAndSet(offset, offset - 1)) {
+            buffer.array[offset - 1] = t;
+            return new ListView<>(null, buffer, offset - 1, size + 1);
+        }
+        int headroom = Math.max(MIN_CAPACITY, size);
+        Object[] array = new Object[headroom + size + 1];
+        array[headroom] = t;
+        copyTo(array, headroom + 1);
+        return new ListView<>(null, new Buffer(array, headroom, array.length), headroom, size + 1);
+    }
+
+    ListView<T> reverse() {
+        Object[] array = new Object[Math.max(MIN_CAPACITY, size)];
+        for (int i = 0; i < size; i++) {
+            array[size - 1 - i] = get(i);
+        }
+        return new ListView<>(null, new Buffer(array, 0, size), 0, size);
+    }
+
+    private void copyTo(Object[] array, int position) {
+        if (source != null) {
+            for (int i = 0; i < size; i++) {
+                array[position + i] = source.get(offset + i);
+            }
+        } else {
+            System.arraycopy(buffer.array, offset, array, position, size);
+        }
+    }
+
+    // 共享缓冲区，[start, end) 区间内的槽位已经被某个视图占用，永远不会再被写入
+    private static final class Buffer {
+
+        private final Object[] array;
+        private final AtomicInteger start;
+        private final AtomicInteger end;
+
+        private Buffer(Object[] array, int start, int end) {
+            this.array = array;
+            this.start = new AtomicInteger(start);
+            this.end = new AtomicInteger(end);
+        }
+    }
+}
@@ -1,16 +1,37 @@
 package com.mfrank.functionprogram;
 
+import com.mfrank.functionprogram.collection.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
-@SpringBootTest
+@SpringBootTest(properties = "function-program.metrics.enabled=true")
+@AutoConfigureMockMvc
 public class FunctionProgramApplicationTests {
 
+    @Autowired
+    private MockMvc mockMvc;
+
     @Test
     public void contextLoads() {
     }
 
+    @Test
+    public void metricsEndpoint() throws Exception {
+        List.list(1, 2, 3).foldLeft(0, x -> y -> x + y);
+        mockMvc.perform(get("/diagnostics/metrics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['fold.count']").isNumber())
+                .andExpect(jsonPath("$['memoizer.hitRate']").exists());
+    }
+
 }
@@ -3,6 +3,7 @@ package com.mfrank.functionprogram.base;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -91,6 +92,25 @@ public class FunctionTest {
             mcase(() -> !emailPattern.matcher(s).matches(), () -> failure("email " + s + " is invalid"))
     );
 
+    static Function<String, Result<String>> compiledEmailChecker = Matcher
+            .<String, String>when(s -> s == null, s -> failure("email must not be null"))
+            .when(s -> s.length() == 0, s -> failure("email must not be empty"))
+            .when(s -> !emailPattern.matcher(s).matches(), s -> failure(() -> "email " + s + " is invalid"))
+            .otherwise(Result::success);
+
+    @Test
+    public void compiledMatcher() {
+        StringBuilder log = new StringBuilder();
+        Effect<String> ok = s -> log.append("ok:").append(s).append(';');
+        Effect<String> error = s -> log.append("error:").append(s).append(';');
+        compiledEmailChecker.apply("john.doe@acme.com").bind(ok, error);
+        compiledEmailChecker.apply(null).bind(ok, error);
+        compiledEmailChecker.apply("").bind(ok, error);
+        compiledEmailChecker.apply("join.doe@acme").bind(ok, error);
+        assert log.toString().equals("ok:john.doe@acme.com;error:email must not be null;"
+                + "error:email must not be empty;error:email join.doe@acme is invalid;");
+    }
+
     @Test
     public void testSendMail() {
         emailChecker.apply("this.is@my.email").bind(success, failure);
@@ -150,6 +170,33 @@ public class FunctionTest {
     };
 
 
+    static IntTailCall intAdd(int a, int b) {
+        return b == 0
+                ? IntTailCall.ret(a)
+                : IntTailCall.sus(() -> intAdd(a + 1, b - 1));
+    }
+
+    static LongTailCall count(long from, long to, long acc) {
+        return from > to
+                ? LongTailCall.ret(acc)
+                : LongTailCall.sus(() -> count(from + 1, to, acc + from));
+    }
+
+    @Test
+    public void primitiveTailCall() {
+        assert intAdd(100000, 20000000).eval() == 100000 + 20000000;
+        assert count(1, 1_000_000, 0).eval() == 1_000_000L * 1_000_001 / 2;
+
+        IntFunction inc = x -> x + 1;
+        IntFunction twice = x -> x * 2;
+        assert inc.andThen(twice).apply(3) == 8;
+        assert inc.compose(twice).apply(3) == 7;
+        IntBinaryOperator add = (x, y) -> x + y;
+        assert add.andThen(twice).partial(2).apply(3) == 10;
+        LongPredicate even = x -> x % 2 == 0;
+        assert even.negate().compose(x -> x + 1).test(2);
+    }
+
     @Test
     public void fibTest() {
         BigInteger result = fib(100000);
@@ -171,6 +218,30 @@ public class FunctionTest {
     }
 
 
+    private static TailCall<Long> sum(long n) {
+        return n == 0
+                ? ret(0L)
+                : sus(() -> sum(n - 1)).map(x -> x + n);
+    }
+
+    private static TailCall<Integer> ackermann(int m, int n) {
+        if (m == 0) {
+            return ret(n + 1);
+        } else if (n == 0) {
+            return sus(() -> ackermann(m - 1, 1));
+        } else {
+            return sus(() -> ackermann(m, n - 1)).flatMap(x -> ackermann(m - 1, x));
+        }
+    }
+
+    @Test
+    public void tailCallFlatMap() {
+        assert sum(1_000_000).eval() == 1_000_000L * 1_000_001 / 2;
+        assert ackermann(2, 3).eval() == 9;
+        assert ackermann(3, 5).eval() == 253;
+    }
+
+
     public static String addSI(String s, Integer i) {
         return "(" + s + " + " + i + ")";
     }
@@ -193,4 +264,68 @@ public class FunctionTest {
     }
 
 
-}
\ No newline at end of file
+
+    @Test
+    public void functionChain() {
+        FunctionChain<Integer, Integer> chain = FunctionChain.identity();
+        for (int i = 0; i < 100_000; i++) {
+            chain = chain.andThen(x -> x + 1);
+        }
+        assert chain.length() == 100_000;
+        assert chain.apply(0) == 100_000;
+
+        // 逐步组合并在每一步调用 apply，展开过的旧数组不能一直被最新的链引用
+        FunctionChain<Integer, Integer> incremental = FunctionChain.<Integer>identity().andThen(x -> x + 1);
+        incremental.apply(0);
+        java.lang.ref.WeakReference<FunctionChain<Integer, Integer>> oldest = new java.lang.ref.WeakReference<>(incremental);
+        for (int i = 2; i <= 20_000; i++) {
+            incremental = incremental.andThen(x -> x + 1);
+            assert incremental.apply(0) == i;
+        }
+        for (int i = 0; i < 10 && oldest.get() != null; i++) {
+            System.gc();
+        }
+        assert oldest.get() == null;
+
+        FunctionChain<String, String> mixed = FunctionChain.of((Integer x) -> x * 2)
+                .andThen(String::valueOf)
+                .compose((String s) -> s.length());
+        assert mixed.apply("abc").equals("6");
+
+        List<Function<String, String>> list = list(s -> s + "a", s -> s + "b", s -> s + "c");
+        assert Function.composeAll(list).apply("").equals("cba");
+        assert Function.andThenAll(list).apply("").equals("abc");
+        assert Function.composeAllViaFoldLeft(list).apply("").equals("cba");
+        assert Function.andThenAllViaFoldRight(list).apply("").equals("abc");
+    }
+
+    @Test
+    public void result() {
+        int[] built = new int[1];
+        Result<Integer> lazy = Result.failure(() -> "built " + ++built[0]);
+        assert lazy.map(x -> x + 1).flatMap(x -> success(x * 2)) == lazy;
+        assert lazy.getOrElse(7) == 7;
+        assert built[0] == 0;
+        assert ((Result.Failure<Integer>) lazy).getMessage().equals("built 1");
+        assert ((Result.Failure<Integer>) lazy).getMessage().equals("built 1");
+
+        assert success(2).map(x -> x + 1).flatMap(x -> success(x * 2)).getOrElse(0) == 6;
+        assert Result.<Integer>failure(new IllegalArgumentException("bad")).recover(e -> e.getMessage().length()).getOrElse(0) == 3;
+        assert Result.<Integer>empty().map(x -> x + 1) == Result.<Integer>empty();
+        assert Result.<Integer>empty().recover(e -> 1).isEmpty();
+
+        Result<String> both = Result.map2(Result.<Integer>failure("a"), Result.<Integer>failure("b"), x -> y -> x + ":" + y);
+        assert ((Result.Failure<String>) both).getMessages().equals(Arrays.asList("a", "b"));
+        assert Result.map2(success(1), success(2), x -> y -> x + y).getOrElse(0) == 3;
+        // 与 sequence 一致，任意一边的失败都优先于另一边的空结果
+        Result<Integer> emptyThenFailure = Result.map2(Result.<Integer>empty(), Result.<Integer>failure("x"), x -> y -> x + y);
+        assert ((Result.Failure<Integer>) emptyThenFailure).getMessage().equals("x");
+        Result<Integer> failureThenEmpty = Result.map2(Result.<Integer>failure("y"), Result.<Integer>empty(), x -> y -> x + y);
+        assert ((Result.Failure<Integer>) failureThenEmpty).getMessage().equals("y");
+        assert Result.map2(success(1), Result.<Integer>empty(), x -> y -> x + y).isEmpty();
+
+        Result<List<Integer>> all = Result.sequence(Arrays.asList(success(1), failure("x"), success(3), failure(() -> "y")));
+        assert ((Result.Failure<List<Integer>>) all).getMessage().equals("x; y");
+        assert Result.sequence(Arrays.asList(success(1), success(3))).getOrElse(Arrays.asList()).equals(Arrays.asList(1, 3));
+    }
+}
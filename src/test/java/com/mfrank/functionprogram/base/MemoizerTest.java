@@ -0,0 +1,356 @@
+package com.mfrank.functionprogram.base;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+public class MemoizerTest {
+
+    @Test
+    public void maximumSize() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<Integer, Integer> f = Memoizer.builder()
+                .maximumSize(100)
+                .build(x -> {
+                    loads.incrementAndGet();
+                    return x * 2;
+                });
+        for (int i = 0; i < 10_000; i++) {
+            assert f.apply(i) == i * 2;
+            // 0 号键一直是热点，不应该被淘汰
+            assert f.apply(0) == 0;
+        }
+        assert ((BoundedMemoizer<Integer, Integer>) f).size() <= 100;
+        int before = loads.get();
+        f.apply(0);
+        assert loads.get() == before;
+    }
+
+    @Test
+    public void lfu() {
+        Function<Integer, Integer> f = Memoizer.builder()
+                .maximumSize(10)
+                .evictionPolicy(Memoizer.EvictionPolicy.LFU)
+                .build(x -> x + 1);
+        for (int i = 0; i < 1000; i++) {
+            assert f.apply(i) == i + 1;
+        }
+        assert ((BoundedMemoizer<Integer, Integer>) f).size() <= 10;
+    }
+
+    @Test
+    public void expireAfterWrite() {
+        AtomicLong now = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Integer> f = Memoizer.builder()
+                .expireAfterWrite(1, TimeUnit.SECONDS)
+                .ticker(now::get)
+                .build(s -> {
+                    loads.incrementAndGet();
+                    return s.length();
+                });
+        assert f.apply("abc") == 3;
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        assert f.apply("abc") == 3;
+        assert loads.get() == 1;
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        assert f.apply("abc") == 3;
+        assert loads.get() == 2;
+    }
+
+    @Test
+    public void expireAfterAccess() {
+        AtomicLong now = new AtomicLong();
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Integer> f = Memoizer.builder()
+                .expireAfterAccess(10, TimeUnit.NANOSECONDS)
+                .weakValues()
+                .ticker(now::get)
+                .build(s -> {
+                    loads.incrementAndGet();
+                    return s.length();
+                });
+        for (int i = 0; i < 5; i++) {
+            now.addAndGet(9);
+            f.apply("abcd");
+        }
+        assert loads.get() == 1;
+        now.addAndGet(10);
+        f.apply("abcd");
+        assert loads.get() == 2;
+    }
+
+    private Function<Integer, Long> fib;
+
+    @Test
+    public void recursiveFunction() {
+        AtomicInteger loads = new AtomicInteger();
+        fib = Memoizer.memoize(n -> {
+            loads.incrementAndGet();
+            return n < 2 ? n : fib.apply(n - 1) + fib.apply(n - 2);
+        });
+        assert fib.apply(90) == 2880067194370816120L;
+        assert loads.get() == 91;
+
+        fib = Memoizer.builder().maximumSize(1000).build(n -> n < 2 ? n : fib.apply(n - 1) + fib.apply(n - 2));
+        assert fib.apply(50) == 12586269025L;
+    }
+
+    @Test(timeout = 10_000)
+    public void recursionDeeperThanMaximumSize() {
+        // 调用链上的占位条目多于容量时，清理不能一直等待它们被淘汰
+        fib = Memoizer.builder().maximumSize(4).build(n -> n < 2 ? (long) n : fib.apply(n - 1) + fib.apply(n - 2));
+        assert fib.apply(30) == 832040L;
+        assert ((BoundedMemoizer<Integer, Long>) fib).size() <= 4;
+    }
+
+    @Test
+    public void checkedFailure() {
+        // 偷偷抛出的受检异常也要清除占位条目，否则之后的调用者会一直等待
+        AtomicInteger loads = new AtomicInteger();
+        for (Function<String, Integer> f : java.util.Arrays.<Function<String, Integer>>asList(
+                Memoizer.memoize(s -> failFirst(loads, s)),
+                Memoizer.builder().maximumSize(10).build(s -> failFirst(loads, s)))) {
+            loads.set(0);
+            try {
+                f.apply("abc");
+                assert false;
+            } catch (Exception e) {
+                assert e instanceof java.io.IOException;
+            }
+            assert f.apply("abc") == 3;
+            assert loads.get() == 2;
+        }
+    }
+
+    private static Integer failFirst(AtomicInteger loads, String s) {
+        if (loads.incrementAndGet() == 1) {
+            throw MemoizerTest.<RuntimeException>sneakyThrow(new java.io.IOException("boom"));
+        }
+        return s.length();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> E sneakyThrow(Throwable t) throws E {
+        throw (E) t;
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cyclicRecursion() {
+        fib = Memoizer.memoize(n -> fib.apply(n));
+        fib.apply(1);
+    }
+
+    private Function<Integer, TailCall<Long>> fibTailCall;
+
+    @Test
+    public void tailCallRecursion() {
+        long mod = 1_000_000_007L;
+        fibTailCall = Memoizer.memoizeTailCall(n -> n < 2
+                ? TailCall.ret((long) n)
+                : fibTailCall.apply(n - 1).flatMap(a -> fibTailCall.apply(n - 2).map(b -> (a + b) % mod)));
+        assert fibTailCall.apply(200_000).eval() == 216_653_165L;
+        assert fibTailCall.apply(200_000).eval() == 216_653_165L;
+        assert fibTailCall.apply(90).eval() == 2880067194370816120L % mod;
+    }
+
+    @Test
+    public void singleFlight() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Function<Integer, Integer> slow = Memoizer.memoize(x -> {
+            loads.incrementAndGet();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return x * 2;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        java.util.List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return slow.apply(21);
+            }));
+        }
+        start.countDown();
+        for (Future<Integer> result : results) {
+            assert result.get() == 42;
+        }
+        executor.shutdown();
+        assert loads.get() == 1;
+    }
+
+    @Test
+    public void curriedFunctions() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<Integer, Function<Integer, Integer>> add = Memoizer.memoize2(x -> y -> {
+            loads.incrementAndGet();
+            return x + y;
+        });
+        // 部分应用命中缓存时返回同一个函数对象，不创建新的闭包
+        assert add.apply(1) == add.apply(1);
+        for (int i = 0; i < 3; i++) {
+            assert add.apply(1).apply(2) == 3;
+            assert add.apply(2).apply(1) == 3;
+        }
+        assert loads.get() == 2;
+
+        Function<String, Function<Integer, Function<Boolean, String>>> f = Memoizer.memoize3(s -> n -> b -> {
+            loads.incrementAndGet();
+            return b ? s + n : n + s;
+        });
+        assert f.apply("a").apply(1) == f.apply("a").apply(1);
+        assert f.apply("a").apply(1).apply(true).equals("a1");
+        assert f.apply("a").apply(1).apply(false).equals("1a");
+        assert f.apply("a").apply(1).apply(true).equals("a1");
+        assert loads.get() == 4;
+
+        // 部分应用的缓存是有界的，大量不同的第一个参数不会让它无限增长，热点的部分应用仍然保留
+        Function<Integer, Integer> hot = add.apply(0);
+        for (int i = 0; i < Memoizer.PARTIALS_SIZE * 10; i++) {
+            assert add.apply(i).apply(1) == i + 1;
+            assert add.apply(0) == hot;
+        }
+    }
+
+    @Test
+    public void tupleKeys() {
+        assert new Tuple<>(1, "a").equals(new Tuple<>(1, "a"));
+        assert new Tuple<>(1, "a").hashCode() == new Tuple<>(1, "a").hashCode();
+        assert !new Tuple<>(1, "a").equals(new Tuple<>("a", 1));
+        assert new Tuple3<>(1, null, 2L).equals(new Tuple3<>(1, null, 2L));
+        assert new Tuple3<>(1, null, 2L).hashCode() == new Tuple3<>(1, null, 2L).hashCode();
+    }
+
+    @Test
+    public void asyncBatching() {
+        List<Integer> batchSizes = new ArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        AsyncMemoizer<Integer, String> memoizer = Memoizer.memoizeAsync(keys -> {
+            synchronized (batchSizes) {
+                batchSizes.add(keys.size());
+            }
+            Map<Integer, String> result = new HashMap<>();
+            keys.forEach(k -> result.put(k, "v" + k));
+            return result;
+        }, executor, 200, TimeUnit.MILLISECONDS, 1000);
+        try {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(memoizer.apply(i));
+            }
+            assert memoizer.apply(3) == futures.get(3);
+            for (int i = 0; i < 10; i++) {
+                assert futures.get(i).join().equals("v" + i);
+            }
+            assert batchSizes.size() == 1 && batchSizes.get(0) == 10;
+
+            Map<Integer, String> all = memoizer.memoizeAll(() -> IntStream.range(0, 2500).iterator()).join();
+            assert all.size() == 2500 && all.get(2499).equals("v2499");
+            assert memoizer.size() == 2500;
+            assert batchSizes.stream().mapToInt(Integer::intValue).sum() == 2500;
+            assert batchSizes.stream().allMatch(n -> n <= 1000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void asyncFailure() {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncMemoizer<Integer, Integer> memoizer = Memoizer.memoizeAsync(keys -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new IllegalStateException("boom");
+            }
+            Map<Integer, Integer> result = new HashMap<>();
+            keys.forEach(k -> result.put(k, k * 2));
+            return result;
+        }, Runnable::run, 0, TimeUnit.MILLISECONDS, 16);
+        try {
+            memoizer.apply(1).join();
+            assert false;
+        } catch (CompletionException e) {
+            assert e.getCause() instanceof IllegalStateException;
+        }
+        assert memoizer.apply(1).join() == 2;
+        assert memoizer.apply(1).join() == 2;
+        assert loads.get() == 2;
+    }
+
+    @Test
+    public void asyncMissingKey() {
+        AtomicInteger loads = new AtomicInteger();
+        AsyncMemoizer<Integer, Integer> memoizer = Memoizer.memoizeAsync(keys -> {
+            Map<Integer, Integer> result = new HashMap<>();
+            // 第一次加载的结果中漏掉了请求的键
+            if (loads.incrementAndGet() > 1) {
+                keys.forEach(k -> result.put(k, k * 2));
+            }
+            return result;
+        }, Runnable::run, 0, TimeUnit.MILLISECONDS, 16);
+        try {
+            memoizer.apply(1).join();
+            assert false;
+        } catch (CompletionException e) {
+            assert e.getCause() instanceof java.util.NoSuchElementException;
+        }
+        assert memoizer.size() == 0;
+        assert memoizer.apply(1).join() == 2;
+        assert memoizer.apply(1).join() == 2;
+        assert loads.get() == 2;
+    }
+
+    @Test
+    public void metrics() {
+        MetricsRecorder previous = Metrics.recorder();
+        CountingMetricsRecorder recorder = new CountingMetricsRecorder();
+        Metrics.install(recorder);
+        try {
+            Function<Integer, Integer> square = Memoizer.memoize(x -> x * x);
+            square.apply(2);
+            square.apply(2);
+            square.apply(3);
+            // 部分应用的缓存不计入指标，只统计组合键的命中和未命中
+            Function<Integer, Function<Integer, Integer>> add = Memoizer.memoize2(x -> y -> x + y);
+            add.apply(1).apply(2);
+            add.apply(1).apply(2);
+            TailCall.Loop<Integer> countDown = new TailCall.Loop<Integer>() {
+                private int n = 100;
+
+                @Override
+                protected boolean step() {
+                    return n-- > 0;
+                }
+
+                @Override
+                protected Integer result() {
+                    return n;
+                }
+            };
+            countDown.eval();
+            Map<String, Object> snapshot = recorder.snapshot();
+            assert snapshot.get("memoizer.hits").equals(2L);
+            assert snapshot.get("memoizer.misses").equals(3L);
+            assert snapshot.get("memoizer.size").equals(3L);
+            assert snapshot.get("tailCall.maxBounces").equals(100L);
+        } finally {
+            Metrics.install(previous);
+        }
+    }
+}
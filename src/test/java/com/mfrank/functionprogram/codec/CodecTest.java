@@ -0,0 +1,88 @@
+package com.mfrank.functionprogram.codec;
+
+import com.mfrank.functionprogram.base.Tuple;
+import com.mfrank.functionprogram.base.Tuple3;
+import com.mfrank.functionprogram.collection.IntList;
+import com.mfrank.functionprogram.collection.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class CodecTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() {
+        Codec<List<Tuple<String, Integer>>> codec = Codecs.list(Codecs.tuple(Codecs.nullable(Codecs.STRING), Codecs.INT));
+        List<Tuple<String, Integer>> list = List.list(new Tuple<>("一", 1), new Tuple<>(null, 2), new Tuple<>("", 3));
+        assert codec.decode(codec.encode(list)).toString().equals("[(一,1), (null,2), (,3), NIL]");
+
+        Codec<Tuple3<Long, Double, Boolean>> tuple3 = Codecs.tuple3(Codecs.LONG, Codecs.DOUBLE, Codecs.BOOLEAN);
+        assert tuple3.decode(tuple3.encode(new Tuple3<>(Long.MIN_VALUE, 0.5, true))).equals(new Tuple3<>(Long.MIN_VALUE, 0.5, true));
+
+        Codec<List<List<Integer>>> nested = Codecs.list(Codecs.list(Codecs.INT));
+        assert nested.decode(nested.encode(List.list(List.list(1, 2), List.list(), List.list(300)))).toString()
+                .equals("[[1, 2, NIL], [NIL], [300, NIL], NIL]");
+
+        // 长度 + 元素，长度小于 128 时只占一个字节
+        assert Codecs.list(Codecs.INT).encode(List.list(1, 2, 3)).length == 1 + 3 * 4;
+        assert Codecs.INT_LIST.decode(Codecs.INT_LIST.encode(IntList.list(1, 2, 3))).toString()
+                .equals(IntList.list(1, 2, 3).toString());
+    }
+
+    @Test
+    public void corruptLength() {
+        // 长度前缀为 Integer.MAX_VALUE，后面只有几个字节，不能按这个长度分配数组
+        byte[] bytes = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3, 4};
+        for (Codec<?> codec : java.util.Arrays.<Codec<?>>asList(Codecs.STRING, Codecs.INT_LIST, Codecs.LONG_LIST,
+                Codecs.DOUBLE_LIST, Codecs.list(Codecs.INT), Codecs.list(Codecs.BOOLEAN))) {
+            try {
+                codec.decode(bytes);
+                assert false;
+            } catch (IllegalStateException e) {
+                assert e.getMessage().contains("exceeds remaining data") || e.getMessage().equals("unexpected end of data");
+            }
+        }
+        // 剩余的字节正好够用时正常读取
+        byte[] exact = {2, 1, 0, 0, 0, 2, 0, 0, 0};
+        assert Codecs.INT_LIST.decode(exact).toString().equals(IntList.list(1, 2).toString());
+    }
+
+    @Test
+    public void mappedFile() throws IOException {
+        int size = 1_000_000;
+        List.Builder<Integer> builder = List.builder(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(i);
+        }
+        List<Integer> list = builder.build();
+        Path path = folder.newFile().toPath();
+
+        // 区域很小时，元素和字符串都会跨越多个映射区域
+        Codec<Tuple<String, List<Integer>>> codec = Codecs.tuple(Codecs.STRING, Codecs.list(Codecs.INT));
+        try (BinaryWriter out = BinaryWriter.map(path, 1000)) {
+            codec.write(out, new Tuple<>(String.join("", java.util.Collections.nCopies(3000, "ab")), list));
+        }
+        assert Files.size(path) == 2 + 6000 + 3 + 4L * size;
+
+        try (BinaryReader in = BinaryReader.map(path, 1000)) {
+            Tuple<String, List<Integer>> result = codec.read(in);
+            assert !in.hasRemaining();
+            assert result._1.length() == 6000;
+            assert result._2.length() == size;
+            assert result._2.drop(size - 1).head() == size - 1;
+            assert List.foldLeft(result._2, 0L, x -> y -> x + y) == (long) size * (size - 1) / 2;
+        }
+
+        Codec<List<String>> strings = Codecs.list(Codecs.STRING);
+        strings.save(path, List.list("a", "b"));
+        assert strings.load(path).toString().equals("[a, b, NIL]");
+        assert Files.size(path) == 5;
+    }
+}
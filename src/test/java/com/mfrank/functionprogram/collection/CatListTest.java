@@ -0,0 +1,60 @@
+package com.mfrank.functionprogram.collection;
+
+import org.junit.Test;
+
+public class CatListTest {
+
+    @Test
+    public void catenate() {
+        CatList<Integer> left = CatList.of(1, 2, 3);
+        CatList<Integer> right = CatList.<Integer>empty().cons(5).cons(4);
+        CatList<Integer> both = left.concat(right).append(6).cons(0);
+        assert both.toString().equals("[0, 1, 2, 3, 4, 5, 6]");
+        assert both.size() == 7;
+        assert both.tail().tail().head() == 2;
+        assert left.toString().equals("[1, 2, 3]");
+        assert right.toList().toString().equals("[4, 5, NIL]");
+        assert CatList.empty().toList().isEmpty();
+    }
+
+    @Test
+    public void manyChunks() {
+        int n = 1_000_000;
+        CatList<Integer> appended = CatList.empty();
+        CatList<Integer> prepended = CatList.empty();
+        CatList<Integer> nested = CatList.empty();
+        for (int i = 0; i < n; i++) {
+            appended = appended.append(i);
+            prepended = prepended.cons(i);
+            nested = CatList.of(i).concat(nested);
+        }
+        assert appended.foldLeft(0L, x -> y -> x + y) == (long) n * (n - 1) / 2;
+        assert prepended.toList().head() == n - 1;
+        assert nested.size() == n;
+        assert nested.toList().drop(n - 1).head() == 0;
+
+        List<List<Integer>> chunks = List.list();
+        for (int i = 0; i < 100_000; i++) {
+            chunks = chunks.cons(List.list(i, i));
+        }
+        List<Integer> flat = List.flatten(chunks);
+        assert flat.foldLeft(0, x -> y -> x + 1) == 200_000;
+        assert flat.head() == 99_999 && flat.drop(199_999).head() == 0;
+    }
+
+    @Test(timeout = 10_000)
+    public void repeatedTailOfSharedVersion() {
+        // 根节点下有 n 个子列表，对同一个版本反复 tail 不能每次都把它们全部连接一遍
+        int n = 100_000;
+        CatList<Integer> wide = CatList.empty();
+        for (int i = 0; i < n; i++) {
+            wide = wide.append(i);
+        }
+        for (int i = 0; i < n; i++) {
+            CatList<Integer> tail = wide.tail();
+            assert tail.head() == 1 && tail.tail().head() == 2;
+        }
+        assert wide.tail().size() == n - 1;
+        assert wide.tail().foldLeft(0L, x -> y -> x + y) == (long) n * (n - 1) / 2;
+    }
+}
@@ -0,0 +1,123 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Monoid;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.mfrank.functionprogram.collection.List.*;
+
+public class ListTest {
+
+    private static List<Integer> range(int start, int end) {
+        List<Integer> result = list();
+        for (int i = end - 1; i >= start; i--) {
+            result = result.cons(i);
+        }
+        return result;
+    }
+
+    @Test
+    public void foldRight() {
+        List<Integer> list = list(1, 2, 3, 4, 5);
+        String s = list.foldRight("0", x -> y -> "(" + x + " + " + y + ")");
+        assert s.equals("(1 + (2 + (3 + (4 + (5 + 0)))))");
+    }
+
+    @Test
+    public void mapAndFilter() {
+        List<Integer> list = list(1, 2, 3, 4, 5);
+        assert list.map(x -> x * 10).toString().equals("[10, 20, 30, 40, 50, NIL]");
+        assert list.filter(x -> x % 2 == 1).toString().equals("[1, 3, 5, NIL]");
+    }
+
+    @Test
+    public void flatten() {
+        List<List<Integer>> lists = list(list(1, 2), List.<Integer>list(), list(3), list(4, 5));
+        assert List.flatten(lists).toString().equals("[1, 2, 3, 4, 5, NIL]");
+        assert concat(list(1, 2), list(3)).toString().equals("[1, 2, 3, NIL]");
+    }
+
+    @Test
+    public void largeList() {
+        int size = 2_000_000;
+        List<Integer> list = range(0, size);
+        List<Integer> mapped = list.map(x -> x + 1);
+        assert mapped.head() == 1;
+        assert mapped.filter(x -> x % 2 == 0).foldLeft(0L, x -> y -> x + 1) == size / 2;
+        assert list.foldRight(0L, x -> y -> x + y) == (long) size * (size - 1) / 2;
+    }
+
+    @Test
+    public void parallel() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<Integer> list = range(0, 100_000);
+        assert list.parFoldLeft(pool, Monoid.longSum(), x -> y -> x + y) == 100_000L * 99_999 / 2;
+        assert list.parFoldLeft(Monoid.stringConcat(), x -> y -> x + (y % 10)).startsWith("01234567890123");
+
+        List<Integer> mapped = list.parMap(pool, x -> x * 2);
+        assert mapped.foldLeft(0L, x -> y -> x + y) == 100_000L * 99_999;
+        assert mapped.head() == 0;
+        assert mapped.drop(99_999).head() == 199_998;
+
+        List<Integer> filtered = list.parFilter(pool, x -> x % 3 == 0);
+        assert filtered.foldLeft(0, x -> y -> x + 1) == 33_334;
+        assert filtered.drop(1).head() == 3;
+        pool.shutdown();
+    }
+
+    @Test
+    public void view() {
+        List<Integer> list = range(0, 1_000_000);
+        List<String> result = list.view()
+                .filter(x -> x % 2 == 1)
+                .map(x -> x * 3)
+                .flatMap(x -> list(x, -x))
+                .takeWhile(x -> Math.abs(x) < 30)
+                .map(String::valueOf)
+                .toList();
+        assert result.toString().equals("[3, -3, 9, -9, 15, -15, 21, -21, 27, -27, NIL]");
+
+        int[] visited = new int[1];
+        assert list.view().map(x -> {
+            visited[0]++;
+            return x;
+        }).takeWhile(x -> x < 10).foldLeft(0, x -> y -> x + y) == 45;
+        assert visited[0] == 11;
+        assert list.view().map(x -> (long) x).foldLeft(0L, x -> y -> x + y) == 1_000_000L * 999_999 / 2;
+        assert list().view().toList().isEmpty();
+    }
+
+    @Test
+    public void javaInterop() {
+        List<Integer> list = range(0, 100_000);
+        assert list.length() == 100_000 && list.tail().length() == 99_999 && list().length() == 0;
+
+        long sum = 0;
+        for (int x : list) {
+            sum += x;
+        }
+        assert sum == 100_000L * 99_999 / 2;
+        assert list.stream().mapToLong(x -> x).sum() == sum;
+        assert list.parallelStream().mapToLong(x -> x).sum() == sum;
+        assert list.parallelStream().filter(x -> x % 1000 == 0).collect(Collectors.toList()).get(3) == 3000;
+
+        List<Integer> collected = IntStream.range(0, 100_000).boxed().parallel().collect(List.collector());
+        assert collected.length() == 100_000;
+        assert collected.head() == 0 && collected.drop(99_999).head() == 99_999;
+
+        List.Builder<String> builder = List.builder();
+        List<String> first = builder.add("a").add("b").build();
+        List<String> second = builder.add("c").build();
+        assert first.toString().equals("[a, b, NIL]");
+        assert second.toString().equals("[a, b, c, NIL]");
+
+        java.util.List<Integer> jdk = new ArrayList<>();
+        jdk.add(1);
+        jdk.add(2);
+        assert List.fromIterable(jdk).toString().equals("[1, 2, NIL]");
+    }
+}
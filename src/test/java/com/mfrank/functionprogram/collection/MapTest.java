@@ -0,0 +1,106 @@
+package com.mfrank.functionprogram.collection;
+
+import com.mfrank.functionprogram.base.Tuple;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+public class MapTest {
+
+    // 只有 16 个不同哈希值的键，用来覆盖冲突节点
+    private static final class Key {
+        private final int id;
+
+        private Key(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).id == id;
+        }
+
+        @Override
+        public int hashCode() {
+            return id % 16;
+        }
+
+        @Override
+        public String toString() {
+            return "k" + id;
+        }
+    }
+
+    @Test
+    public void putGetRemove() {
+        Random random = new Random(42);
+        HashMap<Object, Integer> expected = new HashMap<>();
+        Map<Object, Integer> map = Map.empty();
+        for (int i = 0; i < 200_000; i++) {
+            int n = random.nextInt(20_000);
+            Object key = n % 10 == 0 ? new Key(n) : (Object) n;
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+            assert map.size() == expected.size();
+        }
+        for (java.util.Map.Entry<Object, Integer> entry : expected.entrySet()) {
+            assert map.getOrElse(entry.getKey(), -1).equals(entry.getValue());
+        }
+        assert map.foldLeft(0, n -> e -> n + 1) == expected.size();
+        assert !map.containsKey(-1) && map.get(-1).isEmpty();
+
+        for (Object key : expected.keySet()) {
+            map = map.remove(key);
+        }
+        assert map.isEmpty() && map == Map.<Object, Integer>empty();
+    }
+
+    @Test
+    public void structuralSharing() {
+        Map<String, Integer> v1 = Map.<String, Integer>empty().put("a", 1).put("b", 2);
+        Map<String, Integer> v2 = v1.put("a", 10).remove("b").put("c", 3);
+        assert v1.toString().equals("{a=1, b=2}");
+        assert v2.get("a").getOrElse(0) == 10 && !v2.containsKey("b") && v2.size() == 2;
+        assert v1.put("a", 1) == v1 && v1.remove("z") == v1;
+        assert v1.equals(Map.fromIterable(List.list(new Tuple<>("b", 2), new Tuple<>("a", 1))));
+        assert v1.hashCode() == Map.fromIterable(List.list(new Tuple<>("b", 2), new Tuple<>("a", 1))).hashCode();
+    }
+
+    @Test
+    public void builder() {
+        Map.Builder<Key, Integer> builder = Map.builder();
+        for (int i = 0; i < 10_000; i++) {
+            builder.put(new Key(i), i);
+        }
+        Map<Key, Integer> first = builder.build();
+        builder.remove(new Key(0)).put(new Key(1), -1);
+        Map<Key, Integer> second = builder.build();
+        assert first.size() == 10_000 && first.getOrElse(new Key(1), 0) == 1 && first.containsKey(new Key(0));
+        assert second.size() == 9_999 && second.getOrElse(new Key(1), 0) == -1 && !second.containsKey(new Key(0));
+
+        Map<Key, Integer> third = first.toBuilder().put(new Key(2), -2).build();
+        assert first.getOrElse(new Key(2), 0) == 2 && third.getOrElse(new Key(2), 0) == -2;
+        assert List.foldLeft(third, 0L, s -> e -> s + e._2) == 10_000L * 9_999 / 2 - 4;
+    }
+
+    @Test
+    public void set() {
+        Set<Integer> odd = Set.fromIterable(List.list(1, 3, 5, 7, 5));
+        Set<Integer> small = Set.of(1, 2);
+        assert odd.size() == 4 && odd.contains(7) && !odd.contains(2);
+        assert odd.add(3) == odd && odd.remove(2) == odd;
+        assert odd.union(small).size() == 5 && odd.size() == 4;
+        assert odd.remove(1).remove(3).remove(5).remove(7).isEmpty();
+        assert odd.foldLeft(0, s -> a -> s + a) == 16;
+        assert odd.equals(Set.of(7, 5, 3, 1)) && odd.hashCode() == Set.of(7, 5, 3, 1).hashCode();
+
+        Map<String, Integer> map = Map.<String, Integer>empty().put("x", 1).put("y", 2);
+        assert map.keys().equals(Set.of("x", "y")) && map.keys().add("z").size() == 3;
+    }
+}
@@ -0,0 +1,37 @@
+package com.mfrank.functionprogram.collection;
+
+import org.junit.Test;
+
+public class PrimitiveListTest {
+
+    @Test
+    public void intList() {
+        IntList list = IntList.list(1, 2, 3, 4, 5);
+        assert list.size() == 5;
+        assert list.sum() == 15;
+        assert list.map(x -> x * 10).toString().equals("[10, 20, 30, 40, 50, NIL]");
+        assert list.filter(x -> x % 2 == 1).toString().equals("[1, 3, 5, NIL]");
+        assert list.reverse().toString().equals("[5, 4, 3, 2, 1, NIL]");
+        assert list.foldLeft(0, (x, y) -> x * 10 + y) == 12345;
+        assert list.foldRight(0, (x, y) -> y * 10 + x) == 54321;
+        assert IntList.fromList(list.toList()).toString().equals(list.toString());
+    }
+
+    @Test
+    public void largeLongList() {
+        LongList list = LongList.list();
+        for (long i = 0; i < 1_000_000; i++) {
+            list = list.cons(i);
+        }
+        assert list.size() == 1_000_000;
+        assert list.sum() == 1_000_000L * 999_999 / 2;
+        assert list.filter(x -> x % 2 == 0).map(x -> x + 1).foldRight(0, (x, y) -> x + y) == 250_000_000_000L;
+    }
+
+    @Test
+    public void doubleList() {
+        DoubleList list = DoubleList.fromList(List.list(0.5, 1.5, 2.0));
+        assert list.sum() == 4.0;
+        assert list.map(x -> x * 2).toList().toString().equals("[1.0, 3.0, 4.0, NIL]");
+    }
+}
@@ -0,0 +1,76 @@
+package com.mfrank.functionprogram.collection;
+
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+public class QueueTest {
+
+    @Test
+    public void fifo() {
+        Random random = new Random(7);
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        Queue<Integer> queue = Queue.empty();
+        for (int i = 0; i < 300_000; i++) {
+            if (expected.isEmpty() || random.nextInt(5) < 3) {
+                expected.addLast(i);
+                queue = queue.enqueue(i);
+            } else {
+                Integer first = expected.pollFirst();
+                assert queue.peek().equals(first);
+                queue = queue.dequeue();
+            }
+            assert queue.size() == expected.size();
+        }
+        assert queue.toList().toString().equals(List.fromIterable(expected).toString());
+    }
+
+    @Test
+    public void persistence() {
+        Queue<Integer> queue = Queue.of(1, 2, 3);
+        Queue<Integer> more = queue.enqueue(4);
+        Queue<Integer> fewer = queue.dequeue();
+        assert queue.toString().equals("[1, 2, 3]");
+        assert more.toString().equals("[1, 2, 3, 4]");
+        assert fewer.toString().equals("[2, 3]") && fewer.peek() == 2;
+        // 对同一个旧版本反复出队
+        for (int i = 0; i < 3; i++) {
+            assert more.dequeue().peek() == 2;
+        }
+        assert Queue.fromIterable(List.list(1, 2, 3)).foldLeft(0, x -> y -> x * 10 + y) == 123;
+        assert Queue.of(1).dequeue().isEmpty();
+    }
+
+    @Test
+    public void deque() {
+        Random random = new Random(11);
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        Deque<Integer> deque = Deque.empty();
+        for (int i = 0; i < 300_000; i++) {
+            int op = random.nextInt(6);
+            if (expected.isEmpty() || op < 2) {
+                expected.addFirst(i);
+                deque = deque.pushFront(i);
+            } else if (op < 4) {
+                expected.addLast(i);
+                deque = deque.pushBack(i);
+            } else if (op == 4) {
+                Integer first = expected.pollFirst();
+                assert deque.peekFirst().equals(first);
+                deque = deque.popFront();
+            } else {
+                Integer last = expected.pollLast();
+                assert deque.peekLast().equals(last);
+                deque = deque.popBack();
+            }
+            assert deque.size() == expected.size();
+        }
+        assert deque.toList().toString().equals(List.fromIterable(expected).toString());
+
+        Deque<String> d = Deque.of("b").pushFront("a").pushBack("c");
+        assert d.toString().equals("[a, b, c]");
+        assert d.popBack().popBack().peekLast().equals("a") && d.popFront().popFront().peekFirst().equals("c");
+        assert Deque.of("x").popBack().isEmpty();
+    }
+}
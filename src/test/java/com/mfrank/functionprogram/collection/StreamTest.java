@@ -0,0 +1,60 @@
+package com.mfrank.functionprogram.collection;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.mfrank.functionprogram.collection.Stream.iterate;
+
+public class StreamTest {
+
+    @Test
+    public void lazyEvaluation() {
+        AtomicInteger evaluated = new AtomicInteger();
+        Stream<Integer> stream = iterate(1, x -> x + 1)
+                .map(x -> {
+                    evaluated.incrementAndGet();
+                    return x * x;
+                })
+                .filter(x -> x % 2 == 0);
+        assert stream.take(3).toList().toString().equals("[4, 16, 36, NIL]");
+        assert evaluated.get() == 6;
+
+        // 已经求值过的元素会被缓存
+        stream.take(3).toList();
+        assert evaluated.get() == 6;
+    }
+
+    @Test
+    public void nullElementsEvaluatedOnce() {
+        AtomicInteger evaluated = new AtomicInteger();
+        Stream<String> stream = Stream.cons(() -> {
+            evaluated.incrementAndGet();
+            return null;
+        }, Stream.empty());
+        assert stream.head() == null && stream.head() == null;
+        assert evaluated.get() == 1;
+    }
+
+    @Test
+    public void shortCircuit() {
+        Stream<Integer> naturals = iterate(0, x -> x + 1);
+        assert naturals.exists(x -> x == 1_000_000);
+        naturals.find(x -> x > 10 && x % 7 == 0).bind(x -> {
+            assert x == 14;
+        }, e -> {
+            throw new AssertionError(e);
+        });
+        assert naturals.takeWhile(x -> x < 5).toList().toString().equals("[0, 1, 2, 3, 4, NIL]");
+        assert naturals.drop(1_000_000).head() == 1_000_000;
+        assert naturals.foldRight(() -> false, x -> rest -> x > 100 || rest.get());
+    }
+
+    @Test
+    public void flatMap() {
+        Stream<Integer> stream = iterate(0, x -> x + 1)
+                .flatMap(x -> x < 1_000_000 ? Stream.<Integer>empty() : Stream.fromList(List.list(x, -x)));
+        assert stream.take(4).toList().toString().equals("[1000000, -1000000, 1000001, -1000001, NIL]");
+        assert iterate(1, x -> x + 1).take(100_000).foldLeft(0L, x -> y -> x + y) == 100_000L * 100_001 / 2;
+    }
+}
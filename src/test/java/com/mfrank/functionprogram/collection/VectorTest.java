@@ -0,0 +1,65 @@
+package com.mfrank.functionprogram.collection;
+
+import org.junit.Test;
+
+import static com.mfrank.functionprogram.collection.Vector.vector;
+
+public class VectorTest {
+
+    @Test
+    public void appendGetAndPop() {
+        int size = 40_000;
+        Vector<Integer> v = vector();
+        for (int i = 0; i < size; i++) {
+            v = v.append(i);
+            assert v.size() == i + 1;
+            assert v.last() == i;
+        }
+        for (int i = 0; i < size; i++) {
+            assert v.get(i) == i;
+        }
+        Vector<Integer> popped = v;
+        for (int i = size - 1; i >= 0; i--) {
+            assert popped.last() == i;
+            popped = popped.pop();
+            assert popped.size() == i;
+        }
+        assert popped.isEmpty();
+        assert v.size() == size;
+    }
+
+    @Test
+    public void updateSharesStructure() {
+        Vector<Integer> v = Vector.fromList(List.list(0, 1, 2, 3, 4));
+        for (int i = 5; i < 2000; i++) {
+            v = v.append(i);
+        }
+        Vector<Integer> u = v.update(1000, -1).update(1999, -2);
+        assert v.get(1000) == 1000 && u.get(1000) == -1;
+        assert v.get(1999) == 1999 && u.get(1999) == -2;
+        assert u.get(999) == 999;
+
+        Object[] strings = new String[]{"a", "b"};
+        Vector<Object> objects = Vector.vector(strings).append(1).update(0, 2);
+        assert objects.toString().equals("[2, b, 1]");
+    }
+
+    @Test
+    public void folds() {
+        Vector<Integer> v = vector(1, 2, 3, 4, 5);
+        assert v.foldLeft("0", x -> y -> "(" + x + " + " + y + ")").equals("(((((0 + 1) + 2) + 3) + 4) + 5)");
+        assert v.foldRight("0", x -> y -> "(" + x + " + " + y + ")").equals("(1 + (2 + (3 + (4 + (5 + 0)))))");
+        assert v.map(x -> x * 10).toString().equals("[10, 20, 30, 40, 50]");
+        assert v.toList().toString().equals("[1, 2, 3, 4, 5, NIL]");
+
+        Vector<Integer> big = vector();
+        for (int i = 0; i < 100_000; i++) {
+            big = big.append(i);
+        }
+        Vector<Integer> even = big.map(x -> x * 3).filter(x -> x % 2 == 0);
+        assert even.size() == 50_000;
+        assert even.get(49_999) == 99_998 * 3;
+        assert even.append(7).pop().size() == 50_000;
+        assert big.foldRight(0L, x -> y -> x + y) == 100_000L * 99_999 / 2;
+    }
+}
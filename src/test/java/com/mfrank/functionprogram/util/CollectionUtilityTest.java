@@ -0,0 +1,122 @@
+package com.mfrank.functionprogram.util;
+
+import com.mfrank.functionprogram.base.Transducer;
+import com.mfrank.functionprogram.base.Tuple;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.mfrank.functionprogram.util.CollectionUtility.*;
+
+public class CollectionUtilityTest {
+
+    @Test
+    public void appendAndPrependShareWithoutInterfering() {
+        List<Integer> base = list(1, 2);
+        List<Integer> a = append(base, 3);
+        List<Integer> b = append(base, 4);
+        List<Integer> c = append(a, 5);
+        assert base.equals(Arrays.asList(1, 2));
+        assert a.equals(Arrays.asList(1, 2, 3));
+        assert b.equals(Arrays.asList(1, 2, 4));
+        assert c.equals(Arrays.asList(1, 2, 3, 5));
+
+        List<Integer> d = prepend(0, tail(c));
+        List<Integer> e = prepend(9, tail(c));
+        assert d.equals(Arrays.asList(0, 2, 3, 5));
+        assert e.equals(Arrays.asList(9, 2, 3, 5));
+        assert c.equals(Arrays.asList(1, 2, 3, 5));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void viewsAreReadOnly() {
+        tail(list(1, 2, 3)).add(4);
+    }
+
+    @Test
+    public void tailOfJdkLists() {
+        List<Integer> arrayList = new ArrayList<>(Arrays.asList(1, 2, 3));
+        List<Integer> linkedList = new LinkedList<>(arrayList);
+        assert tail(arrayList).equals(Arrays.asList(2, 3));
+        assert tail(tail(linkedList)).equals(Arrays.asList(3));
+        assert reverse(linkedList).equals(Arrays.asList(3, 2, 1));
+
+        // 可变的源列表被复制，之后修改源列表不影响已经得到的结果
+        List<Integer> rest = tail(arrayList);
+        List<Integer> appended = append(arrayList, 4);
+        List<Integer> prepended = prepend(0, arrayList);
+        arrayList.set(1, 20);
+        arrayList.clear();
+        assert rest.equals(Arrays.asList(2, 3));
+        assert appended.equals(Arrays.asList(1, 2, 3, 4));
+        assert prepended.equals(Arrays.asList(0, 1, 2, 3));
+    }
+
+    @Test
+    public void largeFolds() {
+        int size = 200_000;
+        List<Integer> ts = list();
+        for (int i = 0; i < size; i++) {
+            ts = append(ts, i);
+        }
+        assert foldLeft(ts, 0L, x -> y -> x + y) == (long) size * (size - 1) / 2;
+        assert foldRight(ts, 0L, x -> y -> x + y) == (long) size * (size - 1) / 2;
+        assert head(reverse(ts)) == size - 1;
+        assert range(0, size).size() == size;
+    }
+
+    @Test
+    public void lazyGenerators() {
+        assert range(3, 6).equals(Arrays.asList(3, 4, 5));
+        assert range(6, 3).isEmpty();
+        assert rangeClosed(3, 6).equals(Arrays.asList(3, 4, 5, 6));
+        assert fold(range(0, 100_000_000), 0L, x -> y -> x + y) == 100_000_000L * 99_999_999 / 2;
+        assert com.mfrank.functionprogram.collection.List.foldLeft(rangeClosed(1, 10), 0, x -> y -> x + y) == 55;
+        // 右端点为 Integer.MAX_VALUE 时仍然不存储元素，元素个数超过 int 范围时抛出异常
+        List<Integer> upToMax = rangeClosed(1, Integer.MAX_VALUE);
+        assert upToMax.size() == Integer.MAX_VALUE;
+        assert upToMax.get(Integer.MAX_VALUE - 1) == Integer.MAX_VALUE;
+        assert rangeClosed(Integer.MAX_VALUE, Integer.MAX_VALUE).equals(Arrays.asList(Integer.MAX_VALUE));
+        try {
+            rangeClosed(0, Integer.MAX_VALUE);
+            assert false;
+        } catch (IllegalArgumentException e) {
+            assert e.getMessage().startsWith("range too large");
+        }
+
+        Iterable<Integer> powers = iterate(1, x -> x * 2, 11);
+        assert foldLeft(powers, 0, x -> y -> x + y) == 2047;
+
+        Iterable<String> strings = map(unfold(1, x -> x > 5 ? Optional.empty() : Optional.of(new Tuple<>(x, x + 1))), String::valueOf);
+        assert fold(strings, "", x -> y -> x + y).equals("12345");
+    }
+
+    @Test
+    public void transducer() {
+        Transducer<Integer, String> xf = Transducer.<Integer>filter(x -> x % 2 == 1)
+                .andThen(Transducer.map(x -> x * 3))
+                .andThen(Transducer.<Integer, Integer>flatMap(x -> Arrays.asList(x, -x)))
+                .andThen(Transducer.take(5))
+                .andThen(Transducer.map(String::valueOf));
+        String expected = "3,-3,9,-9,15";
+
+        Iterable<Integer> naturals = iterate(0, x -> x + 1, Integer.MAX_VALUE);
+        assert fold(naturals, xf, "", acc -> s -> acc.isEmpty() ? s : acc + "," + s).equals(expected);
+
+        com.mfrank.functionprogram.collection.List<Integer> list = com.mfrank.functionprogram.collection.List.list(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assert list.foldLeft("", xf, acc -> s -> acc.isEmpty() ? s : acc + "," + s).equals(expected);
+        assert list.transduce(xf).toString().equals("[3, -3, 9, -9, 15, NIL]");
+
+        assert Stream.iterate(0, x -> x + 1).limit(1000)
+                .collect(xf.collector(Collectors.joining(","))).equals(expected);
+        assert Stream.of(5, 6, 7, 1, 2)
+                .collect(Transducer.<Integer>dropWhile(x -> x > 4).andThen(Transducer.drop(1))
+                        .collector(Collectors.toList())).equals(Arrays.asList(2));
+    }
+}